@@ -0,0 +1,12 @@
+package com.example.tax.cache;
+
+/**
+ * Turns cached values into the bytes stored in Redis and back. Decoding fails with an unchecked exception on bytes
+ * it cannot read; callers treat that as a cache miss.
+ */
+public interface CacheValueCodec<T> {
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+}
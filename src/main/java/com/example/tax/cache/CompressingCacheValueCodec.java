@@ -0,0 +1,101 @@
+package com.example.tax.cache;
+
+import com.example.tax.utility.BinaryReader;
+import com.example.tax.utility.BinaryWriter;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates encoded values of at least {@code threshold} bytes: a magic byte, the original length as a varint, then the
+ * deflate stream. Smaller values, and values that do not shrink, are stored as the delegate wrote them, so both forms
+ * are read back whatever the threshold is now.
+ */
+public class CompressingCacheValueCodec<T> implements CacheValueCodec<T> {
+
+    // Distinct from the delegates' first bytes: a binary magic, '{' or '"'
+    static final byte MAGIC = (byte) 0xB9;
+
+    private final CacheValueCodec<T> delegate;
+    private final int threshold;
+
+    public CompressingCacheValueCodec(CacheValueCodec<T> delegate, int threshold) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        byte[] plain = delegate.encode(value);
+        if (plain.length < threshold) {
+            return plain;
+        }
+        byte[] compressed = deflate(plain);
+        int headerBytes = 1 + BinaryWriter.varLongSize(plain.length);
+        if (headerBytes + compressed.length >= plain.length) {
+            return plain;
+        }
+        return new BinaryWriter(headerBytes + compressed.length)
+                .putByte(MAGIC)
+                .varLong(plain.length)
+                .putBytes(compressed)
+                .toByteArray();
+    }
+
+    @Override
+    public T decode(byte[] bytes) {
+        if (bytes.length == 0 || bytes[0] != MAGIC) {
+            return delegate.decode(bytes);
+        }
+        long length = new BinaryReader(bytes, 1).varLong();
+        int offset = 1 + BinaryWriter.varLongSize(length);
+        return delegate.decode(inflate(bytes, offset, Math.toIntExact(length)));
+    }
+
+    private static byte[] deflate(byte[] plain) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(plain);
+            deflater.finish();
+            byte[] buffer = new byte[plain.length];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    // incompressible: the caller keeps the plain bytes
+                    return buffer;
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] plain = new byte[length];
+            int read = 0;
+            // runs to the end of the stream so the trailing checksum is verified too
+            while (!inflater.finished()) {
+                int n = inflater.inflate(plain, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary() || read == length)) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length || !inflater.finished()) {
+                throw new IllegalArgumentException("Truncated compressed cache value");
+            }
+            return plain;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
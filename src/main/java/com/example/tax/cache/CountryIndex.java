@@ -0,0 +1,118 @@
+package com.example.tax.cache;
+
+import com.core.lib.entity.Country;
+import com.core.lib.exception.BusinessException;
+import com.example.tax.repository.CountryRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Every country by code, loaded once at startup into an immutable map, so looking one up costs no database round trip.
+ * The map is replaced, never changed, when a country is added.
+ * <p>
+ * A code missing from the map is created at most once per instance: callers for the same code queue on one lock, and
+ * the first re-checks the table (another instance may have added the country since the load) before inserting it in
+ * its own transaction.
+ */
+@Component
+@Log4j2
+public class CountryIndex {
+
+    private final CountryRepository countryRepository;
+    private final TransactionTemplate requiresNew;
+    private final Map<String, ReentrantLock> creating = new ConcurrentHashMap<>();
+    private volatile Map<String, Country> countries = Map.of();
+
+    public CountryIndex(CountryRepository countryRepository, PlatformTransactionManager transactionManager) {
+        this.countryRepository = countryRepository;
+        // Committed before the caller's transaction, so the index never holds a country a rollback undid. It takes a
+        // second pooled connection while the caller's is held, but only on the rare first use of a country code
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // lookups fall back to the table until a country is added
+            log.warn("Failed to preload countries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the whole table.
+     */
+    public void refresh() {
+        List<Country> all = countryRepository.findAll();
+        Map<String, Country> byCode = new HashMap<>();
+        for (Country country : all) {
+            if (country.getCountryCode() != null) {
+                byCode.put(country.getCountryCode(), country);
+            }
+        }
+        countries = Map.copyOf(byCode);
+        log.info("Loaded {} countries", byCode.size());
+    }
+
+    public Optional<Country> find(String countryCode) {
+        return countryCode == null ? Optional.empty() : Optional.ofNullable(countries.get(countryCode));
+    }
+
+    public int size() {
+        return countries.size();
+    }
+
+    /**
+     * The country with {@code countryCode}, saving the one {@code factory} builds if no instance has it yet.
+     */
+    public Country getOrCreate(String countryCode, Supplier<Country> factory) {
+        if (countryCode == null) {
+            throw new BusinessException("400", "Country code is required");
+        }
+        Country country = countries.get(countryCode);
+        if (country != null) {
+            return country;
+        }
+
+        ReentrantLock lock = creating.computeIfAbsent(countryCode, code -> new ReentrantLock());
+        lock.lock();
+        try {
+            country = countries.get(countryCode);
+            if (country != null) {
+                return country;
+            }
+            country = requiresNew.execute(status -> countryRepository.findByCountryCode(countryCode)
+                    .orElseGet(() -> {
+                        log.info("Country with code {} not found. Creating new country.", countryCode);
+                        return countryRepository.save(factory.get());
+                    }));
+            add(country);
+            return country;
+        } finally {
+            lock.unlock();
+            creating.remove(countryCode, lock);
+        }
+    }
+
+    // Copy-on-write: readers keep using the map they already hold
+    private synchronized void add(Country country) {
+        Map<String, Country> updated = new HashMap<>(countries);
+        updated.put(country.getCountryCode(), country);
+        countries = Map.copyOf(updated);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.tax.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Jackson JSON, for value types without a binary codec and for {@code tax.cache.value-format=json}.
+ */
+public class JsonCacheValueCodec<T> implements CacheValueCodec<T> {
+
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+
+    public JsonCacheValueCodec(ObjectMapper objectMapper, Class<T> type) {
+        this.objectMapper = objectMapper;
+        this.type = type;
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T decode(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.tax.cache;
+
+/**
+ * Counters of the tax record cache since startup, per tier. A local miss that Redis answers counts as a local miss
+ * and a Redis hit; {@code redisErrors} are reads that failed and fell through to the database. {@code negativeHits}
+ * are lookups answered "no such user" from either tier, {@code loads} are database lookups, and
+ * {@code coalescedLoads} are misses that waited for another thread's load of the same user instead of querying.
+ * Writes are {@code bufferedWrites}, or {@code coalescedWrites} when they replaced a value still waiting to be
+ * flushed; each of the {@code flushes} is one Redis round trip, {@code inlineFlushes} ran on a writer because the
+ * buffer was full.
+ */
+public record TaxCacheMetrics(
+        long localSize,
+        long localHits,
+        long localMisses,
+        long localEvictions,
+        long redisHits,
+        long redisMisses,
+        long redisErrors,
+        long negativeHits,
+        long loads,
+        long coalescedLoads,
+        long bufferedWrites,
+        long coalescedWrites,
+        long flushes,
+        long inlineFlushes,
+        long failedFlushes,
+        long invalidationsSent,
+        long invalidationsReceived) {
+}
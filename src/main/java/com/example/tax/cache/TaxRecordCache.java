@@ -0,0 +1,292 @@
+package com.example.tax.cache;
+
+import com.core.lib.entity.TaxRecord;
+import com.example.tax.config.TaxCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Tax records in two tiers: a bounded in-process near cache (size and TTL evicted) in front of Redis, where records
+ * are stored under {@code tax:<userName>}, encoded by the {@link CacheValueCodec} bean. Reads try the near cache first
+ * and fill it from Redis. Writes refresh this instance's near cache at once and are buffered for Redis: every few
+ * milliseconds the latest value of each written key goes out as one pipelined batch, together with one message on the
+ * invalidation channel so other instances drop their copies. Cache failures are logged and otherwise ignored; the
+ * database stays the source of truth.
+ * <p>
+ * Keys are user names trimmed and lower-cased, matching the database's case-insensitive lookup. Reads go through
+ * {@link #getOrLoad}: a user the database does not know is cached as a short-lived negative entry, and concurrent
+ * misses for one user share a single load. Entries filled by a load never overwrite a concurrent write.
+ * <p>
+ * A reader racing an invalidation can put a stale record back into its near cache; the near cache's short TTL bounds
+ * how long it is served.
+ * <p>
+ * Every tax record cache path goes through this class rather than core.lib's {@code RedisCacheProvider}: the provider
+ * writes one key per call, and its key and value format is internal to core.lib, so pipelined batch writes could not
+ * share entries with single-record reads made through it.
+ */
+@Component
+@Log4j2
+public class TaxRecordCache implements MessageListener {
+
+    private static final char SEPARATOR = '\n';
+    // Redis value of a negative entry; an encoded record is never empty
+    private static final byte[] ABSENT = new byte[0];
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheValueCodec<TaxRecord> codec;
+    private final TaxCacheProperties properties;
+    // Optional.empty() is a negative entry
+    private final Cache<String, Optional<TaxRecord>> local;
+    private final Map<String, CompletableFuture<Optional<TaxRecord>>> loading = new ConcurrentHashMap<>();
+    private final WriteBehindBuffer writeBehind;
+    // Lets an instance skip its own invalidations
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder invalidationsSent = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    public TaxRecordCache(StringRedisTemplate redisTemplate, CacheValueCodec<TaxRecord> codec,
+                          TaxCacheProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.codec = codec;
+        this.properties = properties;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxSize())
+                .expireAfter(expiry(properties.getLocalTtl(),
+                        min(properties.getNegativeTtl(), properties.getLocalTtl())))
+                .recordStats()
+                .build();
+        this.writeBehind = new WriteBehindBuffer("tax-cache-flush", properties.getWriteBehindCapacity(),
+                properties.getWriteBehindInterval(), this::writeToRedis);
+    }
+
+    public static String normalize(String userName) {
+        return userName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Near cache, then Redis, then {@code loader} (called with the normalized name) - once per key no matter how many
+     * threads miss at the same time; the others wait for its result. Absent users are cached as negative entries.
+     */
+    public Optional<TaxRecord> getOrLoad(String userName, Function<String, Optional<TaxRecord>> loader) {
+        String key = normalize(userName);
+        Optional<TaxRecord> cached = local.getIfPresent(key);
+        if (cached != null) {
+            if (cached.isEmpty()) negativeHits.increment();
+            return cached;
+        }
+
+        CompletableFuture<Optional<TaxRecord>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<TaxRecord>> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            coalescedLoads.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // a load that finished between our miss and taking the slot has filled the near cache already
+            Optional<TaxRecord> filled = local.getIfPresent(key);
+            if (filled != null && filled.isEmpty()) negativeHits.increment();
+            Optional<TaxRecord> result = filled != null ? filled : readThrough(key, loader);
+            load.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    private Optional<TaxRecord> readThrough(String key, Function<String, Optional<TaxRecord>> loader) {
+        try {
+            byte[] rawKey = redisKey(key);
+            byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(rawKey));
+            if (value != null) {
+                redisHits.increment();
+                Optional<TaxRecord> record = value.length == 0
+                        ? Optional.empty()
+                        : Optional.of(codec.decode(value));
+                if (record.isEmpty()) negativeHits.increment();
+                // a put() since our near-cache miss is newer than what Redis had; it has not been flushed yet
+                Optional<TaxRecord> written = local.asMap().putIfAbsent(key, record);
+                return written != null ? written : record;
+            }
+            redisMisses.increment();
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("Failed to read cached TaxRecord for user={}: {}", key, e.getMessage());
+        }
+
+        loads.increment();
+        Optional<TaxRecord> loaded = loader.apply(key);
+        fill(key, loaded);
+        return loaded;
+    }
+
+    // SET NX: a record written while the load ran is newer than what the load read
+    private void fill(String key, Optional<TaxRecord> record) {
+        local.asMap().putIfAbsent(key, record);
+        try {
+            byte[] rawKey = redisKey(key);
+            byte[] value = record.isPresent() ? codec.encode(record.get()) : ABSENT;
+            Expiration expiration = Expiration.from(
+                    record.isPresent() ? properties.getTtl() : properties.getNegativeTtl());
+            redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                    .set(rawKey, value, expiration, RedisStringCommands.SetOption.ifAbsent()));
+        } catch (Exception e) {
+            log.warn("Failed to cache TaxRecord for user={}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Updates this instance's near cache now; the Redis write and the invalidation go out with the next flush.
+     */
+    public void put(TaxRecord record) {
+        try {
+            String userKey = normalize(record.getUserName());
+            local.put(userKey, Optional.of(record));
+            writeBehind.write(userKey, codec.encode(record));
+        } catch (Exception e) {
+            log.warn("Failed to cache TaxRecord for user={}: {}", record.getUserName(), e.getMessage());
+        }
+    }
+
+    public void putAll(Collection<TaxRecord> records) {
+        records.forEach(this::put);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeBehind.close();
+    }
+
+    /**
+     * Another instance wrote these users' records: drop the near-cache copies so the next read goes to Redis.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int end = body.indexOf(SEPARATOR);
+        if (end < 0 || body.startsWith(instanceId)) return;
+
+        invalidationsReceived.increment();
+        int start = end + 1;
+        while (start < body.length()) {
+            end = body.indexOf(SEPARATOR, start);
+            if (end < 0) end = body.length();
+            local.invalidate(body.substring(start, end));
+            start = end + 1;
+        }
+    }
+
+    public TaxCacheMetrics metrics() {
+        CacheStats stats = local.stats();
+        return new TaxCacheMetrics(local.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                redisHits.sum(), redisMisses.sum(), redisErrors.sum(), negativeHits.sum(), loads.sum(),
+                coalescedLoads.sum(), writeBehind.buffered(), writeBehind.coalesced(), writeBehind.flushes(),
+                writeBehind.inlineFlushes(), writeBehind.failedFlushes(), invalidationsSent.sum(),
+                invalidationsReceived.sum());
+    }
+
+    // instanceId, then one user name per line
+    private byte[] invalidation(Collection<String> keys) {
+        StringBuilder body = new StringBuilder(instanceId);
+        for (String key : keys) {
+            body.append(SEPARATOR).append(key);
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] channel() {
+        return properties.getInvalidationChannel().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // One flush: a SET EX per key and one invalidation for all of them, in a single pipelined round trip
+    private void writeToRedis(Map<String, byte[]> batch) {
+        Expiration expiration = Expiration.from(properties.getTtl());
+        List<byte[]> keys = new ArrayList<>(batch.size());
+        for (String key : batch.keySet()) {
+            keys.add(redisKey(key));
+        }
+        List<byte[]> values = new ArrayList<>(batch.values());
+        byte[] invalidation = invalidation(batch.keySet());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < keys.size(); i++) {
+                connection.stringCommands().set(keys.get(i), values.get(i), expiration,
+                        RedisStringCommands.SetOption.upsert());
+            }
+            connection.publish(channel(), invalidation);
+            return null;
+        });
+        invalidationsSent.increment();
+    }
+
+    private byte[] redisKey(String key) {
+        return (properties.getKeyPrefix() + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    // Records live for the near-cache TTL, negative entries for the (shorter) negative TTL
+    private static Expiry<String, Optional<TaxRecord>> expiry(Duration recordTtl, Duration negativeTtl) {
+        long recordNanos = recordTtl.toNanos();
+        long negativeNanos = negativeTtl.toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, Optional<TaxRecord> value, long currentTime) {
+                return value.isPresent() ? recordNanos : negativeNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, Optional<TaxRecord> value, long currentTime,
+                                          long currentDuration) {
+                return value.isPresent() ? recordNanos : negativeNanos;
+            }
+
+            @Override
+            public long expireAfterRead(String key, Optional<TaxRecord> value, long currentTime,
+                                        long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.tax.cache;
+
+import com.core.lib.entity.TaxRecord;
+import com.example.tax.utility.BinaryReader;
+import com.example.tax.utility.BinaryWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static com.example.tax.utility.BinaryWriter.nullableDoubleSize;
+import static com.example.tax.utility.BinaryWriter.nullableVarLongSize;
+import static com.example.tax.utility.BinaryWriter.stringSize;
+
+/**
+ * Binary form of a cached {@link TaxRecord}: a magic byte, a schema version, then id, userName, income, taxAmount and
+ * netIncome. Apart from the user name a record takes about 35 bytes, less than half its JSON form, and decoding reads
+ * the fields in order without reflection.
+ * <p>
+ * Fields may only be appended, with the version bumped; readers ignore trailing bytes. Entries still holding JSON from
+ * before the binary format (first byte {@code '{'}) are read as JSON until they expire.
+ */
+public class TaxRecordCodec implements CacheValueCodec<TaxRecord> {
+
+    // Neither a valid first byte of UTF-8 text nor the tax message magic
+    static final byte MAGIC = (byte) 0xB8;
+    static final byte VERSION = 1;
+
+    private static final int HEADER_BYTES = 2;
+
+    private final ObjectMapper objectMapper;
+
+    public TaxRecordCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] encode(TaxRecord record) {
+        return new BinaryWriter(HEADER_BYTES
+                + nullableVarLongSize(record.getId())
+                + stringSize(record.getUserName())
+                + nullableDoubleSize(record.getIncome())
+                + nullableDoubleSize(record.getTaxAmount())
+                + nullableDoubleSize(record.getNetIncome()))
+                .putByte(MAGIC)
+                .putByte(VERSION)
+                .nullableVarLong(record.getId())
+                .string(record.getUserName())
+                .nullableDouble(record.getIncome())
+                .nullableDouble(record.getTaxAmount())
+                .nullableDouble(record.getNetIncome())
+                .toByteArray();
+    }
+
+    @Override
+    public TaxRecord decode(byte[] bytes) {
+        if (bytes.length > 0 && bytes[0] == '{') {
+            return fromJson(bytes);
+        }
+        if (bytes.length < HEADER_BYTES || bytes[0] != MAGIC) {
+            throw new IllegalArgumentException("Not a cached TaxRecord");
+        }
+        if (bytes[1] < 1) {
+            throw new IllegalArgumentException("Unsupported TaxRecord cache version " + bytes[1]);
+        }
+        BinaryReader r = new BinaryReader(bytes, HEADER_BYTES);
+        try {
+            return TaxRecord.builder()
+                    .id(r.nullableVarLong())
+                    .userName(r.string())
+                    .income(r.nullableDouble())
+                    .taxAmount(r.nullableDouble())
+                    .netIncome(r.nullableDouble())
+                    .build();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated TaxRecord cache value", e);
+        }
+    }
+
+    private TaxRecord fromJson(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, TaxRecord.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
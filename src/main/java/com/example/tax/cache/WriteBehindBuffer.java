@@ -0,0 +1,106 @@
+package com.example.tax.cache;
+
+import com.example.tax.utility.ThreadFactories;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces cache writes per key and hands them to {@code writer} in batches: every {@code interval} from a
+ * background thread, or right away on the writing thread once {@code capacity} keys are pending. Only the latest
+ * value of a key is kept. Flushes run one at a time, so a key's values reach the writer in the order they were
+ * written.
+ */
+@Log4j2
+class WriteBehindBuffer implements AutoCloseable {
+
+    private final Map<String, byte[]> pending = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final Consumer<Map<String, byte[]>> writer;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    private final LongAdder buffered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder inlineFlushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    WriteBehindBuffer(String name, int capacity, Duration interval, Consumer<Map<String, byte[]>> writer) {
+        this.capacity = capacity;
+        this.writer = writer;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named(name));
+        long intervalNanos = Math.max(interval.toNanos(), 1);
+        flusher.scheduleWithFixedDelay(this::flush, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void write(String key, byte[] value) {
+        if (pending.put(key, value) != null) {
+            coalesced.increment();
+        } else {
+            buffered.increment();
+        }
+        // under pressure the writer pays for the flush, instead of the buffer growing without bound
+        if (pending.size() >= capacity) {
+            inlineFlushes.increment();
+            flush();
+        }
+    }
+
+    void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) return;
+            Map<String, byte[]> batch = new LinkedHashMap<>();
+            for (String key : pending.keySet()) {
+                byte[] value = pending.remove(key);
+                if (value != null) {
+                    batch.put(key, value);
+                }
+            }
+            flushes.increment();
+            writer.accept(batch);
+        } catch (Exception e) {
+            // the cache is not the source of truth; the next read falls through to the database
+            failedFlushes.increment();
+            log.warn("Failed to flush cache writes: {}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    long buffered() {
+        return buffered.sum();
+    }
+
+    long coalesced() {
+        return coalesced.sum();
+    }
+
+    long flushes() {
+        return flushes.sum();
+    }
+
+    long inlineFlushes() {
+        return inlineFlushes.sum();
+    }
+
+    long failedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        flush();
+    }
+}
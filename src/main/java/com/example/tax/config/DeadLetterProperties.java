@@ -0,0 +1,22 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bulk replay of dead-lettered messages. The replay consumer commits under its own group, so each replay picks up
+ * after the last message the previous one re-drove successfully.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.dlt")
+public class DeadLetterProperties {
+
+    private String replayGroup = "tax_dlt_replay";
+
+    // A poll that returns nothing within this time ends the replay
+    private Duration pollTimeout = Duration.ofSeconds(2);
+}
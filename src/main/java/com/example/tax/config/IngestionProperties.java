@@ -0,0 +1,73 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for the staged ingestion pipeline (reader -> mappers -> writers).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ingestion")
+public class IngestionProperties {
+
+    // Parsed rows waiting for a mapper; bounds memory held between the reader and the mappers
+    private int rowQueueCapacity = 10_000;
+
+    // Mapped batches waiting for a writer
+    private int batchQueueCapacity = 8;
+
+    // Sheets of one workbook parsed concurrently, each with its own SAX parser
+    private int sheetThreads = 4;
+
+    // CSV/NDJSON uploads are split into line-aligned chunks of about this size, parsed in parallel
+    private DataSize chunkSize = DataSize.ofMegabytes(64);
+
+    private int chunkThreads = Runtime.getRuntime().availableProcessors();
+
+    private int mapperThreads = Runtime.getRuntime().availableProcessors();
+
+    private int writerThreads = 2;
+
+    private int batchSize = 1_000;
+
+    private Writer writer = Writer.COPY;
+
+    // Transactions table: target of the bulk load and of every native SQL statement over transactions
+    private String copyTable = "transactions";
+
+    // A run is aborted once this many batches could not be written by either path
+    private int maxFailedBatches = 10;
+
+    // Upload jobs running at once, and how many may wait behind them before uploads are rejected
+    private int jobThreads = 2;
+
+    private int jobQueueCapacity = 4;
+
+    // Where uploads are spooled while their job runs
+    private String spoolDirectory = System.getProperty("java.io.tmpdir");
+
+    // How often a running job persists its per-source row checkpoints
+    private Duration checkpointInterval = Duration.ofSeconds(5);
+
+    // Sizing of the in-memory transaction id filter used for deduplication
+    private long dedupExpectedIds = 10_000_000;
+
+    private double dedupFalsePositiveRate = 0.01;
+
+    // How long finished jobs stay queryable
+    private Duration jobRetention = Duration.ofHours(1);
+
+    // Rows fetched per keyset page when replaying tax_calculation events
+    private int replayPageSize = 500;
+
+    public enum Writer {
+        // PostgreSQL COPY ... FROM STDIN, falling back to the upsert per failed batch
+        COPY,
+        JPA
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.tax.config;
+
+import com.core.lib.exception.BusinessException;
+import com.example.tax.ingestion.TransactionEventPublisher;
+import com.example.tax.messaging.TaxRequestReplyClient;
+import com.example.tax.service.impl.KafkaConsumerService;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.SameIntervalTopicReuseStrategy;
+import org.springframework.kafka.support.EndpointHandlerMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@Log4j2
+public class KafkaConfig {
+
+    public static final String BATCH_LISTENER_FACTORY = "batchListenerContainerFactory";
+
+    /**
+     * Entry of the tax_calculation retry chain. Both tax_calculation listeners forward a record here when it fails,
+     * so its partition keeps moving; the retry listener then retries it on delayed topics and finally dead-letters it.
+     */
+    public static final String TAX_CALCULATION_FAILED_TOPIC = "tax_calculation-failed";
+
+    public static final String RETRY_SUFFIX = "-retry";
+
+    public static final String DLT_SUFFIX = "-dlt";
+
+    // Topics whose listeners retry on delay topics and dead-letter, per taxRetryTopics
+    private static final List<String> RETRYABLE_TOPICS =
+            List.of(TAX_CALCULATION_FAILED_TOPIC, TaxRequestReplyClient.REQUEST_TOPIC);
+
+    /**
+     * Same settings as Boot's default listener factory, but hands each poll to the listener as one list. With
+     * {@code BATCH} ack mode the poll's offsets are committed only after the listener returns normally.
+     */
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    /**
+     * Error handler of the listeners on Boot's factories; retryable listeners get their own from the retry chain.
+     * It mostly sees records whose value could not be deserialized, which fail before the listener runs and are not
+     * retried. A tax_calculation record is forwarded to the retry chain, which dead-letters it straight away with its
+     * raw bytes and the exception headers; a failed record of any other topic is logged and skipped.
+     */
+    @Bean
+    public CommonErrorHandler listenerErrorHandler(KafkaTemplate<String, Object> kafkaTemplate) {
+        // partition -1: keep the record's key and let the partitioner place it
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate, (record, e) -> {
+            if (TransactionEventPublisher.TAX_CALCULATION_TOPIC.equals(record.topic())) {
+                return new TopicPartition(TAX_CALCULATION_FAILED_TOPIC, -1);
+            }
+            log.error("Skipping record {}-{} at offset {} that could not be processed", record.topic(),
+                    record.partition(), record.offset(), e);
+            return null;
+        });
+        return new DefaultErrorHandler(recoverer);
+    }
+
+    /**
+     * Non-blocking retries for the listeners of {@link #RETRYABLE_TOPICS}: attempt n waits on its own delay topic
+     * ({@code <topic>-retry-0}, {@code -1}, ...) and the last failure lands on {@code <topic>-dlt}, where
+     * {@link KafkaConsumerService#onDeadLetter} logs it. {@link BusinessException}s and values that could not be
+     * deserialized are dead-lettered without retrying. {@link #serviceTopics} declares the topics from the same
+     * settings, so they are not auto-created here.
+     */
+    @Bean
+    public RetryTopicConfiguration taxRetryTopics(KafkaTemplate<String, Object> kafkaTemplate,
+                                                  TaxRetryProperties retry) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopics(RETRYABLE_TOPICS)
+                .maxAttempts(retry.getAttempts())
+                .exponentialBackoff(retry.getDelayMs(), retry.getMultiplier(), retry.getMaxDelayMs())
+                .sameIntervalTopicReuseStrategy(SameIntervalTopicReuseStrategy.MULTIPLE_TOPICS)
+                .suffixTopicsWithIndexValues()
+                .retryTopicSuffix(RETRY_SUFFIX)
+                .dltSuffix(DLT_SUFFIX)
+                .doNotAutoCreateRetryTopics()
+                .notRetryOn(BusinessException.class)
+                .dltHandlerMethod(new EndpointHandlerMethod(KafkaConsumerService.class, "onDeadLetter"))
+                .create(kafkaTemplate);
+    }
+
+    /**
+     * Every topic this service reads or dead-letters to:
+     * <ul>
+     *     <li>tax_calculation. Growing its partition count moves keys to new partitions, so per-account order only
+     *     holds for events published after the change.</li>
+     *     <li>The reply topic; every instance reads its own partition of it.</li>
+     *     <li>tax_calculation-failed and tax_request with their retry chains: one {@code -retry-<n>} topic per retry
+     *     and the {@code -dlt} topic, as configured by {@link #taxRetryTopics}.</li>
+     * </ul>
+     */
+    @Bean
+    public KafkaAdmin.NewTopics serviceTopics(TaxCalculationProperties calculation, RequestReplyProperties reply,
+                                              TaxRetryProperties retry) {
+        List<NewTopic> topics = new ArrayList<>();
+        topics.add(topic("tax_calculation", calculation.getPartitions(), calculation.getReplicas()));
+        topics.add(topic(reply.getTopic(), reply.getPartitions(), reply.getReplicas()));
+        for (String main : RETRYABLE_TOPICS) {
+            topics.add(topic(main, retry.getPartitions(), retry.getReplicas()));
+            for (int i = 0; i < retry.getAttempts() - 1; i++) {
+                topics.add(topic(main + RETRY_SUFFIX + "-" + i, retry.getPartitions(), retry.getReplicas()));
+            }
+            topics.add(topic(main + DLT_SUFFIX, retry.getPartitions(), retry.getReplicas()));
+        }
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    /**
+     * Creates the service's topics, or grows them to the configured partition count, before the listeners start.
+     * Boot's admin auto-create stays off so NewTopic beans contributed by libraries are not created on their behalf;
+     * {@code tax.topics.create=false} leaves provisioning to the cluster's own tooling. Like Kafka's admin, a broker
+     * that cannot be reached is logged and does not stop startup.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tax.topics.create", havingValue = "true", matchIfMissing = true)
+    public SmartInitializingSingleton serviceTopicCreator(KafkaAdmin kafkaAdmin, KafkaAdmin.NewTopics serviceTopics) {
+        return () -> {
+            try {
+                kafkaAdmin.createOrModifyTopics(serviceTopics.getNewTopics().toArray(NewTopic[]::new));
+            } catch (RuntimeException e) {
+                log.error("Could not create or update the service's Kafka topics", e);
+            }
+        };
+    }
+
+    private static NewTopic topic(String name, int partitions, short replicas) {
+        return TopicBuilder.name(name)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Producer used for bulk event publishing (ingestion and replay). It starts from {@code spring.kafka.producer} and
+ * overrides batching, linger and compression, so latency-sensitive sends on the default template are unaffected.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.publisher")
+public class KafkaPublisherProperties {
+
+    // Sends allowed to await their ack at once; further sends block until one completes
+    private int maxInFlight = 10000;
+
+    private DataSize batchSize = DataSize.ofKilobytes(256);
+
+    private Duration linger = Duration.ofMillis(20);
+
+    private String compressionType = "lz4";
+
+    private String acks = "all";
+
+    // How long the end of a bulk push waits for its outstanding acks
+    private Duration awaitTimeout = Duration.ofSeconds(60);
+}
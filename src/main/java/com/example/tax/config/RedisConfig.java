@@ -0,0 +1,43 @@
+package com.example.tax.config;
+
+import com.core.lib.entity.TaxRecord;
+import com.example.tax.cache.CacheValueCodec;
+import com.example.tax.cache.CompressingCacheValueCodec;
+import com.example.tax.cache.JsonCacheValueCodec;
+import com.example.tax.cache.TaxRecordCache;
+import com.example.tax.cache.TaxRecordCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Encoding of the tax records {@link TaxRecordCache} keeps in Redis, per {@code tax.cache.value-format}.
+     */
+    @Bean
+    public CacheValueCodec<TaxRecord> taxRecordCodec(ObjectMapper objectMapper, TaxCacheProperties properties) {
+        CacheValueCodec<TaxRecord> codec = switch (properties.getValueFormat()) {
+            case BINARY -> new TaxRecordCodec(objectMapper);
+            case JSON -> new JsonCacheValueCodec<>(objectMapper, TaxRecord.class);
+        };
+        return new CompressingCacheValueCodec<>(codec, (int) properties.getCompressionThreshold().toBytes());
+    }
+
+    /**
+     * Delivers near-cache invalidations published by other instances to the local {@link TaxRecordCache}.
+     */
+    @Bean
+    public RedisMessageListenerContainer taxCacheInvalidationContainer(RedisConnectionFactory connectionFactory,
+                                                                      TaxRecordCache taxRecordCache,
+                                                                      TaxCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(taxRecordCache, new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+}
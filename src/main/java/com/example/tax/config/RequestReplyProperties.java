@@ -0,0 +1,35 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Request-reply over tax_request/tax_response. Every instance reads replies from its own partition of the reply
+ * topic; give each replica a distinct {@code partition} (for example its StatefulSet ordinal) and the topic at least
+ * as many partitions as replicas. Replies are matched by correlation id, so instances sharing a partition still only
+ * complete their own requests; sharing only costs them reading each other's replies. Startup fails if
+ * {@code partition} does not lie below {@code partitions}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.reply")
+public class RequestReplyProperties {
+
+    private String topic = "tax_response";
+
+    // This instance's partition of the reply topic
+    private int partition = 0;
+
+    // Partitions of the reply topic; it is created or grown to this count at startup
+    private int partitions = 1;
+
+    private short replicas = 1;
+
+    // Granularity of request timeouts
+    private Duration tick = Duration.ofMillis(50);
+
+    private int wheelSize = 512;
+}
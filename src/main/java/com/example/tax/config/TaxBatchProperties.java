@@ -0,0 +1,20 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk tax calculation over an NDJSON request stream.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.batch")
+public class TaxBatchProperties {
+
+    // Requests computed, inserted, cached and streamed back together; bounds memory per request stream
+    private int chunkSize = 1_000;
+
+    // Table behind the TaxRecord entity
+    private String table = "tax_record";
+}
@@ -0,0 +1,49 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Caching of tax records: an in-process near cache in front of Redis.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.cache")
+public class TaxCacheProperties {
+
+    // Records are stored under keyPrefix + the user name trimmed and lower-cased
+    private String keyPrefix = "tax:";
+
+    private Duration ttl = Duration.ofHours(1);
+
+    // How long "no such user" is remembered, in both tiers
+    private Duration negativeTtl = Duration.ofSeconds(10);
+
+    private long localMaxSize = 10000;
+
+    // Bounds how long a near-cache entry can outlive a lost invalidation
+    private Duration localTtl = Duration.ofSeconds(30);
+
+    // Writes are batched for Redis for this long
+    private Duration writeBehindInterval = Duration.ofMillis(5);
+
+    // Keys waiting for a flush at which the writer flushes itself
+    private int writeBehindCapacity = 10000;
+
+    // Redis pub/sub channel on which writers tell the other instances to drop their near-cache entries
+    private String invalidationChannel = "tax:invalidate";
+
+    // Encoding of cached records in Redis; either format reads entries written as JSON
+    private ValueFormat valueFormat = ValueFormat.BINARY;
+
+    // Encoded values at least this large are deflated
+    private DataSize compressionThreshold = DataSize.ofBytes(512);
+
+    public enum ValueFormat {
+        BINARY, JSON
+    }
+}
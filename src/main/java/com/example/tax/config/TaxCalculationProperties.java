@@ -0,0 +1,30 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * tax_calculation topic and consumers. Events are keyed by account number, so one account's events share a
+ * partition; {@code concurrency} consumers per instance split the partitions, and each consumer spreads a poll over
+ * {@code lanes} threads by key. The listener annotations read {@code listener-mode} and {@code concurrency} directly.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.calculation")
+public class TaxCalculationProperties {
+
+    // record or batch
+    private String listenerMode = "batch";
+
+    // Partitions of tax_calculation; raising it adds partitions, lowering it has no effect
+    private int partitions = 6;
+
+    private short replicas = 1;
+
+    // Consumer threads per instance; more than the partition count leaves some idle
+    private int concurrency = 1;
+
+    // Threads that process one poll's keys in parallel
+    private int lanes = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,41 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Slab tables for the tax engine, one per country, regime and assessment year. Each slab applies its rate to the part
+ * of the income above {@code from}, up to the next slab's {@code from}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.engine")
+public class TaxEngineProperties {
+
+    // Table used when a caller does not name one
+    private String defaultCountry = "IN";
+
+    private String defaultRegime = "OLD";
+
+    private String defaultAssessmentYear = "2025-26";
+
+    private List<Table> tables = new ArrayList<>();
+
+    @Data
+    public static class Table {
+        private String country;
+        private String regime;
+        private String assessmentYear;
+        private List<Slab> slabs = new ArrayList<>();
+    }
+
+    @Data
+    public static class Slab {
+        private double from;
+        private double rate;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Paging of tax record listings.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.list")
+public class TaxListProperties {
+
+    private int defaultPageSize = 100;
+
+    // Larger requested pages are capped to this
+    private int maxPageSize = 1_000;
+
+    // How long a recalculation page waits for all its tax_response replies together
+    private Duration recalculationTimeout = Duration.ofSeconds(5);
+}
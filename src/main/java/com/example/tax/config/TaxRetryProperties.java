@@ -0,0 +1,28 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Non-blocking retries of the tax_calculation-failed and tax_request listeners. {@link KafkaConfig} builds the retry
+ * policy from these settings and declares the matching topics: one delay topic per retry plus the dead-letter topic.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.retry")
+public class TaxRetryProperties {
+
+    // Deliveries including the first; attempts - 1 delay topics
+    private int attempts = 4;
+
+    private long delayMs = 1_000;
+
+    private double multiplier = 4;
+
+    private long maxDelayMs = 60_000;
+
+    private int partitions = 1;
+
+    private short replicas = 1;
+}
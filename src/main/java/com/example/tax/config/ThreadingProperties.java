@@ -0,0 +1,22 @@
+package com.example.tax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode is switched by {@code spring.threads.virtual.enabled}; these settings tune the pinning monitor
+ * that runs in that mode.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tax.threads")
+public class ThreadingProperties {
+
+    // A virtual thread pinned to its carrier for longer than this is reported
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+
+    private int pinnedStackDepth = 8;
+}
@@ -0,0 +1,29 @@
+package com.example.tax.controller;
+
+import com.example.tax.messaging.DeadLetterReplayResult;
+import com.example.tax.service.DeadLetterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dead-letters")
+@Tag(name = "Dead-letter APIs", description = "Endpoints for messages that exhausted their retries")
+public class DeadLetterController {
+
+    private final DeadLetterService deadLetterService;
+
+    public DeadLetterController(DeadLetterService deadLetterService) {
+        this.deadLetterService = deadLetterService;
+    }
+
+    @PostMapping("/{topic}/replay")
+    @Operation(summary = "Replay dead-lettered messages",
+            description = "Re-drives messages from the dead-letter topic of tax_calculation or tax_request back onto "
+                    + "the topic, continuing after the last successful replay")
+    public ResponseEntity<DeadLetterReplayResult> replay(@PathVariable String topic,
+                                                         @RequestParam(defaultValue = "10000") int maxRecords) {
+        return ResponseEntity.ok(deadLetterService.replay(topic, maxRecords));
+    }
+}
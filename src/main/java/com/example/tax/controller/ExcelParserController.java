@@ -1,6 +1,7 @@
 package com.example.tax.controller;
 
-import com.example.tax.service.ExcelParserService;
+import com.example.tax.ingestion.IngestionJobStatus;
+import com.example.tax.service.IngestionJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,8 +10,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -23,25 +28,33 @@ import org.springframework.web.multipart.MultipartFile;
 @RequestMapping("/api/excel")
 public class ExcelParserController {
     @Autowired
-    private ExcelParserService excelParserService;
+    private IngestionJobService ingestionJobService;
 
     @Operation(
-            summary = "Upload Excel file",
-            description = "Uploads an Excel file and processes its contents"
+            summary = "Upload Excel, CSV or NDJSON file",
+            description = "Spools the file and queues it for processing; returns the job to poll. "
+                    + "The format is taken from the extension: .csv, .ndjson/.jsonl, otherwise Excel"
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Excel processed successfully"),
-            @ApiResponse(responseCode = "500", description = "Error processing Excel",
+            @ApiResponse(responseCode = "202", description = "Excel accepted for processing"),
+            @ApiResponse(responseCode = "503", description = "Too many uploads in progress",
                     content = @Content(schema = @Schema(implementation = String.class)))
     })
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<String> uploadExcel(@Parameter(description = "Excel file to be uploaded", required = true)
+    public ResponseEntity<IngestionJobStatus> uploadExcel(@Parameter(description = "Excel, CSV or NDJSON file to be uploaded", required = true)
             @RequestParam("file") MultipartFile file) {
-//        try {
-            excelParserService.processExcel(file);
-            return ResponseEntity.ok("Excel processed successfully");
-//        } catch (Exception e) {
-//            return ResponseEntity.status(500).body("Error processing Excel: " + e.getMessage());
-//        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ingestionJobService.submit(file));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get upload job status", description = "Rows processed/failed, throughput and the final report")
+    public ResponseEntity<IngestionJobStatus> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(ingestionJobService.getJob(jobId));
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    @Operation(summary = "Cancel upload job", description = "Stops a queued or running upload job")
+    public ResponseEntity<IngestionJobStatus> cancelJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(ingestionJobService.cancel(jobId));
     }
 }
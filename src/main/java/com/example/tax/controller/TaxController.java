@@ -1,12 +1,19 @@
 package com.example.tax.controller;
 
 import com.core.lib.entity.TaxRecord;
+import com.example.tax.cache.TaxCacheMetrics;
+import com.example.tax.messaging.RequestReplyMetrics;
+import com.example.tax.model.TaxRecordPage;
 import com.example.tax.service.TaxService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +31,17 @@ public class TaxController {
         return taxService.calculateTax(userName, income);
     }
 
+    @PostMapping(value = "/calculate/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Calculate tax for many users",
+            description = "NDJSON in ({\"userName\":..,\"income\":..} per line), NDJSON out: one saved TaxRecord or "
+                    + "{\"line\":..,\"error\":..} per request, streamed back chunk by chunk")
+    public ResponseEntity<StreamingResponseBody> calculateTaxBatch(InputStream requests) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results -> taxService.calculateTaxBatch(requests, results));
+    }
+
     @GetMapping
     @Operation(summary = "Get tax record by username", description = "Fetches TaxRecord from cache or DB")
     public Optional<TaxRecord> getTaxRecord(@RequestParam String userName) {
@@ -31,8 +49,40 @@ public class TaxController {
     }
 
     @GetMapping("/list")
-    @Operation(summary = "Get all tax records", description = "Retrieves all TaxRecords from DB")
-    public List<TaxRecord> getTaxRecords() {
-        return taxService.getTaxRecords();
+    @Operation(summary = "List tax records",
+            description = "Keyset-paginated TaxRecords in id order; pass the returned nextAfterId as afterId for the next page")
+    public TaxRecordPage getTaxRecords(@RequestParam(required = false) Long afterId,
+                                       @RequestParam(required = false) Integer size) {
+        return taxService.getTaxRecords(afterId, size);
+    }
+
+    @GetMapping(value = "/list/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all tax records", description = "Every TaxRecord as NDJSON, read from a database cursor")
+    public ResponseEntity<StreamingResponseBody> streamTaxRecords() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(taxService::streamTaxRecords);
+    }
+
+    @PostMapping("/recalculate")
+    @Operation(summary = "Recalculate a page of tax records",
+            description = "Sends one page of TaxRecords through Kafka for recalculation and returns the updated records")
+    public List<TaxRecord> recalculateTaxRecords(@RequestParam(required = false) Long afterId,
+                                                 @RequestParam(required = false) Integer size) {
+        return taxService.recalculateTaxRecords(afterId, size);
+    }
+
+    @GetMapping("/recalculate/metrics")
+    @Operation(summary = "Recalculation request-reply metrics",
+            description = "In-flight requests and sent/replied/timed-out/failed/unmatched counts since startup")
+    public RequestReplyMetrics getRecalculationMetrics() {
+        return taxService.getRecalculationMetrics();
+    }
+
+    @GetMapping("/cache/metrics")
+    @Operation(summary = "Tax record cache metrics",
+            description = "Near-cache and Redis hit/miss counts, near-cache size and evictions, invalidations sent/received")
+    public TaxCacheMetrics getCacheMetrics() {
+        return taxService.getCacheMetrics();
     }
 }
@@ -0,0 +1,39 @@
+package com.example.tax.controller;
+
+import com.example.tax.ingestion.ReplayResult;
+import com.example.tax.messaging.PublisherMetrics;
+import com.example.tax.service.TransactionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/transactions")
+@Tag(name = "Transaction APIs", description = "Endpoints for ingested transactions")
+public class TransactionController {
+
+    private final TransactionService transactionService;
+
+    public TransactionController(TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @PostMapping("/replay")
+    @Operation(summary = "Replay tax_calculation events",
+            description = "Backfill: republishes transactions in (txnDate, id) order after the given cursor and "
+                    + "waits for the broker's acks; failed events are reported, not retried")
+    public ResponseEntity<ReplayResult> replay(@RequestParam(required = false) Instant afterTxnDate,
+                                               @RequestParam(required = false) Long afterId,
+                                               @RequestParam(defaultValue = "100000") int maxRecords) {
+        return ResponseEntity.ok(transactionService.replayTaxCalculationEvents(afterTxnDate, afterId, maxRecords));
+    }
+
+    @GetMapping("/publisher/metrics")
+    @Operation(summary = "Bulk publisher metrics", description = "In-flight, acknowledged and failed event sends since startup")
+    public ResponseEntity<PublisherMetrics> publisherMetrics() {
+        return ResponseEntity.ok(transactionService.getPublisherMetrics());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.tax.engine;
+
+/**
+ * Computes {@code taxes[i] = table.taxFor(incomes[i])} for a whole array. Implementations must return exactly what
+ * {@link SlabTable#taxFor} returns for every input, including NaN, infinite and negative incomes.
+ */
+interface BulkTaxKernel {
+
+    BulkTaxKernel SCALAR = (table, incomes, taxes) -> {
+        for (int i = 0; i < incomes.length; i++) {
+            taxes[i] = table.taxFor(incomes[i]);
+        }
+    };
+
+    void compute(SlabTable table, double[] incomes, double[] taxes);
+}
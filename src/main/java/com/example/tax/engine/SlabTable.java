@@ -0,0 +1,66 @@
+package com.example.tax.engine;
+
+import java.util.Arrays;
+
+/**
+ * Progressive tax slabs with the tax owed at each slab's lower bound precomputed, so the tax on an income is one
+ * binary search for its slab plus one multiply. Immutable.
+ */
+public final class SlabTable {
+
+    private final double[] lowers;
+    private final double[] rates;
+    // Width of each slab; the top slab is unbounded
+    private final double[] widths;
+    // Tax owed on an income of exactly lowers[i]
+    private final double[] cumulative;
+
+    public SlabTable(double[] lowers, double[] rates) {
+        if (lowers.length == 0 || lowers.length != rates.length) {
+            throw new IllegalArgumentException("Slab table needs one rate per threshold");
+        }
+        this.lowers = lowers.clone();
+        this.rates = rates.clone();
+        this.widths = new double[lowers.length];
+        this.cumulative = new double[lowers.length];
+        for (int i = 0; i < lowers.length; i++) {
+            if (i > 0 && lowers[i] <= lowers[i - 1]) {
+                throw new IllegalArgumentException("Slab thresholds must be strictly increasing: " + Arrays.toString(lowers));
+            }
+            widths[i] = i + 1 < lowers.length ? lowers[i + 1] - lowers[i] : Double.POSITIVE_INFINITY;
+            cumulative[i] = i == 0 ? 0 : cumulative[i - 1] + widths[i - 1] * rates[i - 1];
+        }
+    }
+
+    public double taxFor(double income) {
+        // also catches NaN
+        if (!(income > lowers[0])) return 0;
+
+        int slab = Arrays.binarySearch(lowers, income);
+        if (slab < 0) {
+            slab = -slab - 2;
+        }
+        return cumulative[slab] + (income - lowers[slab]) * rates[slab];
+    }
+
+    int size() {
+        return lowers.length;
+    }
+
+    double lower(int slab) {
+        return lowers[slab];
+    }
+
+    double width(int slab) {
+        return widths[slab];
+    }
+
+    double rate(int slab) {
+        return rates[slab];
+    }
+
+    @Override
+    public String toString() {
+        return "SlabTable{lowers=" + Arrays.toString(lowers) + ", rates=" + Arrays.toString(rates) + "}";
+    }
+}
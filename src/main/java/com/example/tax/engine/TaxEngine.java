@@ -0,0 +1,116 @@
+package com.example.tax.engine;
+
+import com.core.lib.exception.BusinessException;
+import com.example.tax.config.TaxEngineProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The one place income tax is computed. Slab tables are loaded from {@code tax.engine.tables}, keyed by country,
+ * regime and assessment year; the default table applies when a caller does not name one. If no default table is
+ * configured, the statutory IN/OLD slabs are used.
+ * <p>
+ * The bulk {@link #calculateTaxes} path runs a scalar loop. Builds with the {@code vector} Maven profile also contain
+ * a JDK Vector API kernel, used when the JVM runs with {@code --add-modules jdk.incubator.vector}; the default build
+ * does not depend on the incubator module.
+ */
+@Component
+@Log4j2
+public class TaxEngine {
+
+    private static final double[] DEFAULT_LOWERS = {0, 250_000, 500_000, 1_000_000};
+    private static final double[] DEFAULT_RATES = {0, 0.05, 0.20, 0.30};
+    // Only present in builds with the vector profile
+    private static final String VECTOR_KERNEL = "com.example.tax.engine.VectorTaxKernel";
+
+    private final Map<SlabKey, SlabTable> tables;
+    private final SlabTable defaultTable;
+    private final BulkTaxKernel kernel;
+
+    public TaxEngine(TaxEngineProperties properties) {
+        Map<SlabKey, SlabTable> loaded = new HashMap<>();
+        for (TaxEngineProperties.Table table : properties.getTables()) {
+            SlabKey key = SlabKey.of(table.getCountry(), table.getRegime(), table.getAssessmentYear());
+            loaded.put(key, toSlabTable(table.getSlabs()));
+        }
+
+        SlabKey defaultKey = SlabKey.of(properties.getDefaultCountry(), properties.getDefaultRegime(),
+                properties.getDefaultAssessmentYear());
+        if (!loaded.containsKey(defaultKey)) {
+            log.warn("No slab table configured for default {}, using the built-in IN/OLD slabs", defaultKey);
+            loaded.put(defaultKey, new SlabTable(DEFAULT_LOWERS, DEFAULT_RATES));
+        }
+        this.tables = Map.copyOf(loaded);
+        this.defaultTable = tables.get(defaultKey);
+        Optional<BulkTaxKernel> vectorKernel = vectorKernel();
+        this.kernel = vectorKernel.orElse(BulkTaxKernel.SCALAR);
+        log.info("Tax engine loaded {} slab tables, default {}, bulk path {}", tables.size(), defaultKey,
+                vectorKernel.isPresent() ? "vectorized" : "scalar");
+    }
+
+    public double calculateTax(double income) {
+        return defaultTable.taxFor(income);
+    }
+
+    public double calculateTax(String country, String regime, String assessmentYear, double income) {
+        return table(country, regime, assessmentYear).taxFor(income);
+    }
+
+    public SlabTable table(String country, String regime, String assessmentYear) {
+        SlabTable table = tables.get(SlabKey.of(country, regime, assessmentYear));
+        if (table == null) {
+            throw new BusinessException("404", "No tax slabs configured for " + country + "/" + regime + "/"
+                    + assessmentYear);
+        }
+        return table;
+    }
+
+    public double[] calculateTaxes(double[] incomes) {
+        return calculateTaxes(defaultTable, incomes);
+    }
+
+    public double[] calculateTaxes(SlabTable table, double[] incomes) {
+        double[] taxes = new double[incomes.length];
+        kernel.compute(table, incomes, taxes);
+        return taxes;
+    }
+
+    // The Vector API kernel, if this build contains it and the JVM enabled the incubator module
+    static Optional<BulkTaxKernel> vectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((BulkTaxKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    private static SlabTable toSlabTable(List<TaxEngineProperties.Slab> slabs) {
+        double[] lowers = new double[slabs.size()];
+        double[] rates = new double[slabs.size()];
+        for (int i = 0; i < slabs.size(); i++) {
+            lowers[i] = slabs.get(i).getFrom();
+            rates[i] = slabs.get(i).getRate();
+        }
+        return new SlabTable(lowers, rates);
+    }
+
+    private record SlabKey(String country, String regime, String assessmentYear) {
+
+        static SlabKey of(String country, String regime, String assessmentYear) {
+            return new SlabKey(upper(country), upper(regime), assessmentYear != null ? assessmentYear.trim() : null);
+        }
+
+        private static String upper(String value) {
+            return value != null ? value.trim().toUpperCase(Locale.ROOT) : null;
+        }
+    }
+}
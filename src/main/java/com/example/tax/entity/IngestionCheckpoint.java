@@ -0,0 +1,48 @@
+package com.example.tax.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Last committed row of one source (sheet or chunk) of an uploaded file. Rows up to and including
+ * {@code committedRow} were written or permanently rejected, so a re-run of the same file starts after it.
+ */
+@Entity
+@Table(name = "ingestion_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IngestionCheckpoint {
+
+    // fileHash + ":" + source
+    @Id
+    @Column(name = "checkpoint_key", length = 512)
+    private String checkpointKey;
+
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+
+    @Column(name = "source", nullable = false, length = 255)
+    private String source;
+
+    @Column(name = "committed_row", nullable = false)
+    private long committedRow;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public IngestionCheckpoint(String fileHash, String source, long committedRow) {
+        this.checkpointKey = fileHash + ":" + source;
+        this.fileHash = fileHash;
+        this.source = source;
+        this.committedRow = committedRow;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.tax.ingestion;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps a source column index to the {@link TransactionField} slot it fills, built once from the header row. Extra
+ * columns map to {@link #UNMAPPED} and are ignored; reordered columns land in the right slot.
+ */
+@Log4j2
+public final class ColumnPlan {
+
+    public static final int UNMAPPED = -1;
+
+    private static final ColumnPlan POSITIONAL = positionalPlan();
+
+    private final int[] slots;
+    private final Set<TransactionField> missing;
+
+    private ColumnPlan(int[] slots, Set<TransactionField> missing) {
+        this.slots = slots;
+        this.missing = missing;
+    }
+
+    /**
+     * Legacy layout: column i holds field i.
+     */
+    public static ColumnPlan positional() {
+        return POSITIONAL;
+    }
+
+    /**
+     * Builds the plan from header cells; falls back to the positional layout when no header cell names a known field.
+     * Required fields no header names are logged, together with the header cells that were not recognised: their
+     * values would otherwise be stored as null without a trace.
+     */
+    public static ColumnPlan fromHeader(List<String> headers) {
+        int[] slots = new int[headers.size()];
+        Arrays.fill(slots, UNMAPPED);
+        boolean[] seen = new boolean[TransactionField.COUNT];
+        int mapped = 0;
+        List<String> unknown = new ArrayList<>();
+
+        for (int col = 0; col < headers.size(); col++) {
+            TransactionField field = TransactionField.fromHeader(headers.get(col));
+            if (field == null) {
+                if (headers.get(col) != null && !headers.get(col).isBlank()) {
+                    unknown.add(headers.get(col));
+                }
+                continue;
+            }
+            if (seen[field.ordinal()]) {
+                log.warn("Duplicate header '{}' in column {}, keeping the first occurrence", headers.get(col), col);
+                continue;
+            }
+            seen[field.ordinal()] = true;
+            slots[col] = field.ordinal();
+            mapped++;
+        }
+
+        if (mapped == 0) {
+            log.warn("No known column names in header {}, using positional layout", headers);
+            return POSITIONAL;
+        }
+
+        Set<TransactionField> missing = EnumSet.noneOf(TransactionField.class);
+        for (TransactionField field : TransactionField.values()) {
+            if (field.isRequired() && !seen[field.ordinal()]) {
+                missing.add(field);
+            }
+        }
+        if (!missing.isEmpty()) {
+            log.warn("Header names no column for required fields {}, they will be empty on every row; "
+                    + "unrecognised columns: {}", missing, unknown);
+        }
+        return new ColumnPlan(slots, missing);
+    }
+
+    /**
+     * Required fields that no column fills.
+     */
+    public Set<TransactionField> missingFields() {
+        return missing;
+    }
+
+    /**
+     * Field slot for a column, or {@link #UNMAPPED}.
+     */
+    public int slot(int column) {
+        return column >= 0 && column < slots.length ? slots[column] : UNMAPPED;
+    }
+
+    /**
+     * Zero-based column of a cell reference such as "AB12", decoded without regex or intermediate strings.
+     */
+    public static int columnIndex(String cellReference) {
+        int col = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') break;
+            col = col * 26 + (c - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+    private static ColumnPlan positionalPlan() {
+        int[] slots = new int[TransactionField.COUNT];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = i;
+        }
+        return new ColumnPlan(slots, Set.of());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.tax.ingestion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 style records: comma separated fields, optionally double-quoted with {@code ""} escapes. A quoted field may
+ * contain line breaks, which are kept in the value ({@link CsvRecordScanner} finds the record's end). An empty unquoted
+ * field is read as null, like an empty Excel cell.
+ */
+class CsvLineParser implements LineParser {
+
+    private final ColumnPlan plan;
+    private final CsvRecordScanner scanner = new CsvRecordScanner();
+
+    CsvLineParser(ColumnPlan plan) {
+        this.plan = plan;
+    }
+
+    @Override
+    public int recordEnd(ByteBuffer buffer, int from, int limit) {
+        scanner.reset();
+        int next = scanner.nextRecordStart(buffer, from, limit);
+        return next < 0 ? limit : next - 1;
+    }
+
+    @Override
+    public void parse(byte[] line, int length, String[] row) {
+        split(line, length, (column, value) -> {
+            int slot = plan.slot(column);
+            if (slot != ColumnPlan.UNMAPPED) {
+                row[slot] = value;
+            }
+        });
+    }
+
+    static List<String> splitToList(byte[] line, int length) {
+        List<String> fields = new ArrayList<>();
+        split(line, length, (column, value) -> fields.add(value));
+        return fields;
+    }
+
+    private static void split(byte[] line, int length, FieldConsumer consumer) {
+        int column = 0;
+        int i = 0;
+        while (i <= length) {
+            String value;
+            if (i < length && line[i] == '"') {
+                int start = ++i;
+                boolean escapedQuotes = false;
+                while (i < length) {
+                    if (line[i] == '"') {
+                        if (i + 1 < length && line[i + 1] == '"') {
+                            escapedQuotes = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                value = new String(line, start, i - start, StandardCharsets.UTF_8);
+                if (escapedQuotes) {
+                    value = value.replace("\"\"", "\"");
+                }
+                // skip the closing quote and anything up to the separator
+                while (i < length && line[i] != ',') i++;
+            } else {
+                int start = i;
+                while (i < length && line[i] != ',') i++;
+                value = i == start ? null : new String(line, start, i - start, StandardCharsets.UTF_8);
+            }
+            consumer.accept(column++, value);
+            i++;
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldConsumer {
+        void accept(int column, String value);
+    }
+}
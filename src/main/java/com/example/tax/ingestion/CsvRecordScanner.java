@@ -0,0 +1,86 @@
+package com.example.tax.ingestion;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Finds where CSV records end, reading quotes the way {@link CsvLineParser} does: a double quote at the start of a
+ * field opens a quoted value, {@code ""} inside it is an escaped quote, and a line break inside it belongs to the
+ * value. Quotes anywhere else are plain text. The state carries over between calls, so a record may be fed in pieces.
+ */
+final class CsvRecordScanner {
+
+    private static final int RECORD_START = 0;
+    private static final int FIELD_START = 1;
+    private static final int UNQUOTED = 2;
+    private static final int QUOTED = 3;
+    // a quote inside a quoted value: either the closing quote or the first half of ""
+    private static final int QUOTED_QUOTE = 4;
+
+    private int state = RECORD_START;
+
+    boolean atRecordStart() {
+        return state == RECORD_START;
+    }
+
+    void reset() {
+        state = RECORD_START;
+    }
+
+    /**
+     * Index just past the {@code '\n'} that ends the current record, or -1 if {@code [from, limit)} ends inside it.
+     */
+    int nextRecordStart(ByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (step(buffer.get(i))) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Feeds all of {@code [from, limit)} through the scanner.
+     */
+    void skip(ByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            step(buffer.get(i));
+        }
+    }
+
+    // true if b is the line break that ends a record
+    private boolean step(byte b) {
+        switch (state) {
+            case RECORD_START, FIELD_START -> {
+                if (b == '"') {
+                    state = QUOTED;
+                } else if (b == ',') {
+                    state = FIELD_START;
+                } else if (b == '\n') {
+                    state = RECORD_START;
+                    return true;
+                } else {
+                    state = UNQUOTED;
+                }
+            }
+            case QUOTED -> {
+                if (b == '"') {
+                    state = QUOTED_QUOTE;
+                }
+            }
+            // UNQUOTED, and text after a closing quote, which the parser skips
+            default -> {
+                if (b == '"' && state == QUOTED_QUOTE) {
+                    state = QUOTED;
+                } else if (b == ',') {
+                    state = FIELD_START;
+                } else if (b == '\n') {
+                    state = RECORD_START;
+                    return true;
+                } else {
+                    state = UNQUOTED;
+                }
+            }
+        }
+        return false;
+    }
+}
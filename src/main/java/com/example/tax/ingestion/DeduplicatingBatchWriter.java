@@ -0,0 +1,61 @@
+package com.example.tax.ingestion;
+
+import com.core.lib.entity.Transaction;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits each batch on the {@link TransactionIdFilter}: definitely new rows go to the bulk writer, maybe seen rows to
+ * the upsert, which skips ids already stored. A bulk write that fails, typically on the unique index after a filter
+ * race or a duplicate within the file, is retried through the upsert.
+ * <p>
+ * Without the unique index neither the bulk path nor {@code ON CONFLICT} can reject duplicates, so every row goes
+ * through the existence-checked insert instead.
+ */
+@Log4j2
+class DeduplicatingBatchWriter implements TransactionBatchWriter {
+
+    private final TransactionBatchWriter bulkWriter;
+    private final UpsertTransactionBatchWriter upsertWriter;
+    private final TransactionIdFilter idFilter;
+
+    DeduplicatingBatchWriter(TransactionBatchWriter bulkWriter, UpsertTransactionBatchWriter upsertWriter,
+                             TransactionIdFilter idFilter) {
+        this.bulkWriter = bulkWriter;
+        this.upsertWriter = upsertWriter;
+        this.idFilter = idFilter;
+    }
+
+    @Override
+    public List<Transaction> write(List<Transaction> batch) {
+        if (!idFilter.hasUniqueIndex()) {
+            for (Transaction txn : batch) {
+                idFilter.claim(txn.getTransactionId());
+            }
+            return upsertWriter.writeIfAbsent(batch);
+        }
+
+        List<Transaction> fresh = new ArrayList<>(batch.size());
+        List<Transaction> maybeSeen = new ArrayList<>();
+        for (Transaction txn : batch) {
+            (idFilter.claim(txn.getTransactionId()) ? fresh : maybeSeen).add(txn);
+        }
+
+        List<Transaction> inserted = new ArrayList<>(batch.size());
+        if (!fresh.isEmpty()) {
+            try {
+                inserted.addAll(bulkWriter.write(fresh));
+            } catch (Exception e) {
+                log.warn("Bulk write of {} new records failed, retrying through upsert: {}", fresh.size(),
+                        e.getMessage());
+                inserted.addAll(upsertWriter.write(fresh));
+            }
+        }
+        if (!maybeSeen.isEmpty()) {
+            inserted.addAll(upsertWriter.write(maybeSeen));
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.tax.ingestion;
+
+/**
+ * What keeps an ingestion run from storing a {@code transaction_id} twice.
+ */
+public enum DuplicateGuard {
+    // The unique index on transaction_id: bulk COPY for new ids, ON CONFLICT DO NOTHING for the rest
+    UNIQUE_INDEX,
+    // No unique index: every row is inserted only if its id is not stored yet. Two writers inserting the same new id at
+    // the same moment can still both insert it.
+    EXISTS_CHECK
+}
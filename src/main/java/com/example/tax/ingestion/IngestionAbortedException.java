@@ -0,0 +1,11 @@
+package com.example.tax.ingestion;
+
+/**
+ * Thrown into the reader when another stage of the pipeline has already failed, so parsing stops early.
+ */
+public class IngestionAbortedException extends RuntimeException {
+
+    public IngestionAbortedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
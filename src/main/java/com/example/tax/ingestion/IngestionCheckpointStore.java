@@ -0,0 +1,43 @@
+package com.example.tax.ingestion;
+
+import com.example.tax.entity.IngestionCheckpoint;
+import com.example.tax.repository.IngestionCheckpointRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-source row checkpoints of uploaded files, keyed by the file's content hash so a re-upload of the same bytes
+ * resumes where the earlier run stopped.
+ */
+@Component
+@Log4j2
+public class IngestionCheckpointStore {
+
+    private final IngestionCheckpointRepository checkpointRepository;
+
+    public IngestionCheckpointStore(IngestionCheckpointRepository checkpointRepository) {
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    /**
+     * Committed row per source name; sources without a checkpoint are absent.
+     */
+    public Map<String, Long> load(String fileHash) {
+        Map<String, Long> committed = new HashMap<>();
+        for (IngestionCheckpoint checkpoint : checkpointRepository.findByFileHash(fileHash)) {
+            committed.put(checkpoint.getSource(), checkpoint.getCommittedRow());
+        }
+        if (!committed.isEmpty()) {
+            log.info("Resuming file {} from checkpoints {}", fileHash, committed);
+        }
+        return committed;
+    }
+
+    public void save(String fileHash, String source, long committedRow) {
+        checkpointRepository.save(new IngestionCheckpoint(fileHash, source, committedRow));
+        log.debug("Checkpointed {} of file {} at row {}", source, fileHash, committedRow);
+    }
+}
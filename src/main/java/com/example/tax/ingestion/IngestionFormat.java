@@ -0,0 +1,19 @@
+package com.example.tax.ingestion;
+
+import java.util.Locale;
+
+public enum IngestionFormat {
+
+    XLSX,
+    // Comma separated, header line first
+    CSV,
+    // One JSON object per line, keyed by field name
+    NDJSON;
+
+    public static IngestionFormat fromFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) return CSV;
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return NDJSON;
+        return XLSX;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.tax.ingestion;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+
+/**
+ * An upload being processed in the background. Progress is read live from the attached pipeline while the job runs.
+ */
+@Getter
+public class IngestionJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    private final String jobId;
+    private final String fileName;
+    private final Path spoolFile;
+    private final IngestionFormat format;
+    private final Instant submittedAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    // SHA-256 of the spooled content, the key its checkpoints are stored under
+    private volatile String fileHash;
+    private volatile IngestionPipeline pipeline;
+    private volatile IngestionReport report;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    public IngestionJob(String jobId, String fileName, Path spoolFile) {
+        this.jobId = jobId;
+        this.fileName = fileName;
+        this.spoolFile = spoolFile;
+        this.format = IngestionFormat.fromFileName(fileName);
+    }
+
+    public void setFileHash(String fileHash) {
+        this.fileHash = fileHash;
+    }
+
+    public void attach(IngestionPipeline pipeline) {
+        this.pipeline = pipeline;
+        if (status == Status.CANCELLED) {
+            pipeline.abort(new CancellationException("Job " + jobId + " was cancelled"));
+        }
+    }
+
+    public boolean isCancelled() {
+        return status == Status.CANCELLED;
+    }
+
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    public void started() {
+        startedAt = Instant.now();
+        if (status == Status.QUEUED) {
+            status = Status.RUNNING;
+        }
+    }
+
+    public void completed(IngestionReport report) {
+        this.report = report;
+        finish(Status.COMPLETED);
+    }
+
+    public void failed(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    public boolean cancel() {
+        if (status != Status.QUEUED && status != Status.RUNNING) {
+            return false;
+        }
+        status = Status.CANCELLED;
+        IngestionPipeline running = pipeline;
+        if (running != null) {
+            running.abort(new CancellationException("Job " + jobId + " was cancelled"));
+        }
+        if (future != null) {
+            future.cancel(true);
+        }
+        if (startedAt == null) {
+            finishedAt = Instant.now();
+        }
+        return true;
+    }
+
+    private void finish(Status outcome) {
+        finishedAt = Instant.now();
+        // a cancelled job keeps its status even though its task still runs to the end
+        if (status != Status.CANCELLED) {
+            status = outcome;
+        }
+    }
+
+    public IngestionJobStatus snapshot() {
+        IngestionPipeline running = pipeline;
+        long rowsProcessed = report != null ? report.rowsWritten() : running != null ? running.rowsWritten() : 0;
+        long rowsFailed = report != null ? report.rowsFailed() : running != null ? running.rowsFailed() : 0;
+
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsedMillis = startedAt != null ? end.toEpochMilli() - startedAt.toEpochMilli() : 0;
+        long rowsPerSecond = elapsedMillis > 0 ? rowsProcessed * 1000 / elapsedMillis : 0;
+
+        return new IngestionJobStatus(jobId, fileName, status, submittedAt, startedAt, finishedAt,
+                rowsProcessed, rowsFailed, rowsPerSecond, elapsedMillis, error, report);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.tax.ingestion;
+
+import java.time.Instant;
+
+public record IngestionJobStatus(
+        String jobId,
+        String fileName,
+        IngestionJob.Status status,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        long rowsProcessed,
+        long rowsFailed,
+        long rowsPerSecond,
+        long elapsedMillis,
+        String error,
+        IngestionReport report) {
+}
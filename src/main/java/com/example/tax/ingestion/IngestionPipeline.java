@@ -0,0 +1,426 @@
+package com.example.tax.ingestion;
+
+import com.core.lib.entity.Transaction;
+import com.example.tax.config.IngestionProperties;
+import com.example.tax.messaging.KafkaBulkPublisher;
+import com.example.tax.messaging.PublishResult;
+import com.example.tax.utility.WorkerThreads;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One ingestion run: readers push raw rows through {@link RowSink}s into a bounded row queue, a pool of mapper threads
+ * turns them into {@link Transaction} batches, and writer threads persist the batches and publish
+ * {@code tax_calculation} events for exactly the rows they persisted. Both queues are bounded, so a slow writer
+ * eventually blocks the reader instead of letting parsed rows pile up on the heap.
+ * <p>
+ * Each row is tracked back to its source (sheet or chunk) until its batch is committed, and every source's watermark
+ * (the row below which all rows finished) is checkpointed under the file's hash. A later run of the same file skips
+ * rows up to the checkpoint; rows past it that an interrupted run already wrote are dropped as duplicates by the
+ * writer.
+ * <p>
+ * Typical use: {@code sink = pipeline.newSink()}, feed rows, {@code sink.close()}, then {@link #complete()}.
+ */
+@Log4j2
+public class IngestionPipeline implements AutoCloseable {
+
+    private static final RawRow END_OF_INPUT = new RawRow(null, -1, null);
+    private static final TransactionBatch END_OF_BATCHES = new TransactionBatch(0);
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final String source;
+    private final String fileHash;
+    private final int batchSize;
+    private final int mapperThreads;
+    private final int writerThreads;
+    private final int maxFailedBatches;
+    private final TransactionRowMapper rowMapper;
+    private final TransactionBatchWriter batchWriter;
+    private final TransactionEventPublisher eventPublisher;
+    // All writers' events share one bulk push, whose acks are awaited once in complete()
+    private final KafkaBulkPublisher.Batch events;
+    private final IngestionCheckpointStore checkpointStore;
+    private final DuplicateGuard duplicateGuard;
+    private final Map<String, Long> resumePoints;
+    private final long checkpointIntervalNanos;
+
+    private final BlockingQueue<RawRow> rowQueue;
+    private final BlockingQueue<TransactionBatch> batchQueue;
+    // Row buffers handed back by the mappers for readers to reuse
+    private final BlockingQueue<String[]> freeRows;
+    private final ExecutorService mappers;
+    private final ExecutorService writers;
+    private final List<Future<?>> mapperTasks = new ArrayList<>();
+    private final List<Future<?>> writerTasks = new ArrayList<>();
+
+    private final StageMetrics readStage = new StageMetrics("read", 0);
+    private final StageMetrics mapStage;
+    private final StageMetrics writeStage;
+    private final StageMetrics publishStage;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicInteger failedBatches = new AtomicInteger();
+    private final List<SourceReport> sourceReports = new CopyOnWriteArrayList<>();
+    private final List<SourceProgress> sourceProgress = new CopyOnWriteArrayList<>();
+    private final LongAdder rowsSkipped = new LongAdder();
+    private final LongAdder rowsDuplicate = new LongAdder();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final long startNanos = System.nanoTime();
+    private volatile long nextCheckpointNanos;
+
+    IngestionPipeline(String source, String fileHash, IngestionProperties properties,
+                      TransactionRowMapper rowMapper, TransactionBatchWriter batchWriter,
+                      TransactionEventPublisher eventPublisher, IngestionCheckpointStore checkpointStore,
+                      DuplicateGuard duplicateGuard, WorkerThreads workerThreads) {
+        this.source = source;
+        this.fileHash = fileHash;
+        this.batchSize = properties.getBatchSize();
+        this.mapperThreads = properties.getMapperThreads();
+        this.writerThreads = properties.getWriterThreads();
+        this.maxFailedBatches = properties.getMaxFailedBatches();
+        this.rowMapper = rowMapper;
+        this.batchWriter = batchWriter;
+        this.eventPublisher = eventPublisher;
+        this.events = eventPublisher.begin();
+        this.checkpointStore = checkpointStore;
+        this.duplicateGuard = duplicateGuard;
+        this.resumePoints = checkpointStore.load(fileHash);
+        this.checkpointIntervalNanos = properties.getCheckpointInterval().toNanos();
+        this.nextCheckpointNanos = startNanos + checkpointIntervalNanos;
+        this.rowQueue = new ArrayBlockingQueue<>(properties.getRowQueueCapacity());
+        this.batchQueue = new ArrayBlockingQueue<>(properties.getBatchQueueCapacity());
+        this.freeRows = new ArrayBlockingQueue<>(properties.getRowQueueCapacity() + mapperThreads);
+        this.mapStage = new StageMetrics("map", mapperThreads);
+        this.writeStage = new StageMetrics("write", writerThreads);
+        this.publishStage = new StageMetrics("publish", writerThreads);
+
+        this.mappers = Executors.newFixedThreadPool(mapperThreads, workerThreads.named("ingest-map"));
+        this.writers = Executors.newFixedThreadPool(writerThreads, workerThreads.named("ingest-write"));
+        for (int i = 0; i < mapperThreads; i++) {
+            mapperTasks.add(mappers.submit(this::runMapper));
+        }
+        for (int i = 0; i < writerThreads; i++) {
+            writerTasks.add(writers.submit(this::runWriter));
+        }
+    }
+
+    /**
+     * Returns a sink for one reader thread, e.g. one per sheet. Sinks are not thread-safe; each reader needs its own.
+     * Rows and time per sink are reported as a {@link SourceReport} once the sink is closed.
+     */
+    public RowSink newSink(String name) {
+        readStage.addThread();
+        SourceProgress progress = new SourceProgress(name, resumePoints.getOrDefault(name, 0L));
+        sourceProgress.add(progress);
+        return new RowSink(progress);
+    }
+
+    /**
+     * Fails the run; readers stop at their next row and {@link #complete()} rethrows the cause.
+     */
+    public void abort(Throwable cause) {
+        fail(cause);
+    }
+
+    public long rowsWritten() {
+        return writeStage.rows() - rowsDuplicate.sum();
+    }
+
+    public long rowsFailed() {
+        return readStage.failedRows() + mapStage.failedRows() + writeStage.failedRows();
+    }
+
+    /**
+     * Signals end of input, waits for the mappers and writers to drain and returns the run's report.
+     */
+    public IngestionReport complete() {
+        try {
+            for (int i = 0; i < mapperThreads; i++) {
+                put(rowQueue, END_OF_INPUT, readStage);
+            }
+            await(mapperTasks);
+            for (int i = 0; i < writerThreads; i++) {
+                put(batchQueue, END_OF_BATCHES, mapStage);
+            }
+            await(writerTasks);
+            awaitEvents();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+        } finally {
+            // also on failure (put() throws once a stage has failed): the progress made so far is what a re-run
+            // resumes from
+            checkpointLock.lock();
+            try {
+                saveCheckpoints();
+            } finally {
+                checkpointLock.unlock();
+            }
+        }
+        checkFailure();
+
+        IngestionReport report = report();
+        log.info("Ingestion of {} finished: {}", source, report);
+        return report;
+    }
+
+    public IngestionReport report() {
+        long elapsed = System.nanoTime() - startNanos;
+        return new IngestionReport(source, readStage.rows(), rowsSkipped.sum(), rowsWritten(), rowsDuplicate.sum(),
+                rowsFailed(), duplicateGuard, elapsed / 1_000_000,
+                List.of(readStage.report(elapsed), mapStage.report(elapsed), writeStage.report(elapsed),
+                        publishStage.report(elapsed)),
+                List.copyOf(sourceReports));
+    }
+
+    @Override
+    public void close() {
+        mappers.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    private void runMapper() {
+        TransactionBatch batch = new TransactionBatch(batchSize);
+        try {
+            while (true) {
+                RawRow row = rowQueue.take();
+                if (row == END_OF_INPUT) break;
+
+                long start = System.nanoTime();
+                try {
+                    batch.add(rowMapper.mapRowToEntity(row.values()), row.source(), row.rowNum());
+                    mapStage.processed(1, System.nanoTime() - start);
+                } catch (Exception ex) {
+                    mapStage.failed(1);
+                    // bad data fails the same way on every run, so the row counts as finished
+                    row.source().finish(row.rowNum());
+                    log.error("Failed to parse row {} of {}: {}", row.rowNum(), row.source().name(), ex.getMessage(), ex);
+                }
+                recycle(row.values());
+
+                if (batch.size() >= batchSize) {
+                    put(batchQueue, batch, mapStage);
+                    batch = new TransactionBatch(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                put(batchQueue, batch, mapStage);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private void runWriter() {
+        try {
+            while (true) {
+                TransactionBatch batch = batchQueue.take();
+                if (batch == END_OF_BATCHES) break;
+
+                long start = System.nanoTime();
+                List<Transaction> inserted;
+                try {
+                    inserted = batchWriter.write(batch.transactions());
+                    writeStage.processed(batch.size(), System.nanoTime() - start);
+                    rowsDuplicate.add(batch.size() - inserted.size());
+                } catch (Exception e) {
+                    // one bad batch only costs its own rows; a run that keeps failing is a systemic problem.
+                    // Its rows stay unfinished, so the checkpoint cannot move past them and a re-run retries them.
+                    writeStage.failed(batch.size());
+                    log.error("Failed to save batch of size {}: {}", batch.size(), e.getMessage(), e);
+                    if (failedBatches.incrementAndGet() >= maxFailedBatches) {
+                        fail(new IllegalStateException(failedBatches.get() + " batches failed to save", e));
+                        break;
+                    }
+                    continue;
+                }
+
+                long publishStart = System.nanoTime();
+                // duplicates had their event published when they were first inserted
+                eventPublisher.publish(events, inserted);
+                publishStage.processed(inserted.size(), System.nanoTime() - publishStart);
+
+                batch.finishRows();
+                maybeCheckpoint();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private void awaitEvents() throws InterruptedException {
+        PublishResult published = events.await();
+        // the rows are saved either way; a replay from the transactions table republishes what was lost
+        publishStage.failed(published.failed() + published.unacknowledged());
+    }
+
+    private void maybeCheckpoint() {
+        if (System.nanoTime() < nextCheckpointNanos || !checkpointLock.tryLock()) return;
+        try {
+            nextCheckpointNanos = System.nanoTime() + checkpointIntervalNanos;
+            saveCheckpoints();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    // Caller holds checkpointLock
+    private void saveCheckpoints() {
+        for (SourceProgress progress : sourceProgress) {
+            long watermark = progress.watermark();
+            if (!progress.dirty()) continue;
+            try {
+                checkpointStore.save(fileHash, progress.name(), watermark);
+                progress.markPersisted(watermark);
+            } catch (Exception e) {
+                log.warn("Failed to checkpoint {} of {} at row {}: {}", progress.name(), source, watermark,
+                        e.getMessage());
+            }
+        }
+    }
+
+    private void recycle(String[] values) {
+        Arrays.fill(values, null);
+        freeRows.offer(values);
+    }
+
+    private <T> void put(BlockingQueue<T> queue, T item, StageMetrics producer) throws InterruptedException {
+        if (queue.offer(item)) return;
+
+        long start = System.nanoTime();
+        try {
+            while (!queue.offer(item, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } finally {
+            producer.blocked(System.nanoTime() - start);
+        }
+    }
+
+    private void fail(Throwable t) {
+        if (failure.compareAndSet(null, t)) {
+            log.error("Ingestion of {} failed: {}", source, t.getMessage(), t);
+        }
+    }
+
+    private void checkFailure() {
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new IngestionAbortedException("Ingestion of " + source + " aborted: " + t.getMessage(), t);
+        }
+    }
+
+    private static void await(List<Future<?>> tasks) throws InterruptedException {
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                // stage loops record their own failures
+            }
+        }
+    }
+
+    private record RawRow(SourceProgress source, int rowNum, String[] values) {
+    }
+
+    /**
+     * Reader-side handle. Time between calls is counted as read-stage work, time spent waiting for queue space as
+     * blocked time.
+     */
+    public class RowSink implements AutoCloseable {
+
+        private final String name;
+        private final SourceProgress progress;
+        private final long openedNanos = System.nanoTime();
+        private long mark = openedNanos;
+        private long rows;
+        private int lastRowNum;
+
+        private RowSink(SourceProgress progress) {
+            this.name = progress.name();
+            this.progress = progress;
+        }
+
+        /**
+         * A cleared row buffer, indexed by {@link TransactionField#ordinal()}. Ownership passes to the pipeline on
+         * {@link #accept}; the reader must not touch it afterwards.
+         */
+        public String[] newRow() {
+            String[] values = freeRows.poll();
+            return values != null ? values : new String[TransactionField.COUNT];
+        }
+
+        /**
+         * Hands a row to the mappers. Row numbers must increase within a sink; numbers skipped over (blank rows) count
+         * as finished, and rows up to the source's checkpoint are dropped here without being mapped again.
+         */
+        public void accept(int rowNum, String[] values) {
+            checkFailure();
+            if (rowNum <= progress.resumeAfter()) {
+                rowsSkipped.increment();
+                lastRowNum = rowNum;
+                recycle(values);
+                return;
+            }
+            skipTo(rowNum);
+            rows++;
+            long now = System.nanoTime();
+            readStage.processed(1, now - mark);
+            try {
+                put(rowQueue, new RawRow(progress, rowNum, values), readStage);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+                checkFailure();
+            }
+            mark = System.nanoTime();
+        }
+
+        /**
+         * Records a row the reader could not decode and returns its buffer to the pool.
+         */
+        public void reject(int rowNum, String[] values, Exception cause) {
+            recycle(values);
+            if (rowNum <= progress.resumeAfter()) return;
+
+            skipTo(rowNum);
+            progress.finish(rowNum);
+            readStage.failed(1);
+            log.error("Failed to read row {} of {}: {}", rowNum, name, cause.getMessage());
+        }
+
+        private void skipTo(int rowNum) {
+            int from = Math.max(lastRowNum, (int) progress.resumeAfter()) + 1;
+            if (rowNum > from) {
+                progress.finishRange(from, rowNum - 1);
+            }
+            lastRowNum = rowNum;
+        }
+
+        @Override
+        public void close() {
+            long now = System.nanoTime();
+            readStage.processed(0, now - mark);
+            sourceReports.add(new SourceReport(name, rows, (now - openedNanos) / 1_000_000));
+        }
+    }
+}
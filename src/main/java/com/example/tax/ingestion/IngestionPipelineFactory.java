@@ -0,0 +1,41 @@
+package com.example.tax.ingestion;
+
+import com.example.tax.config.IngestionProperties;
+import com.example.tax.utility.WorkerThreads;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IngestionPipelineFactory {
+
+    private final IngestionProperties properties;
+    private final TransactionRowMapper rowMapper;
+    private final TransactionBatchWriter batchWriter;
+    private final TransactionEventPublisher eventPublisher;
+    private final IngestionCheckpointStore checkpointStore;
+    private final TransactionIdFilter idFilter;
+    private final WorkerThreads workerThreads;
+
+    public IngestionPipelineFactory(IngestionProperties properties, TransactionRowMapper rowMapper,
+                                    CopyTransactionBatchWriter copyWriter, JpaTransactionBatchWriter jpaWriter,
+                                    UpsertTransactionBatchWriter upsertWriter, TransactionIdFilter idFilter,
+                                    TransactionEventPublisher eventPublisher, IngestionCheckpointStore checkpointStore,
+                                    WorkerThreads workerThreads) {
+        this.properties = properties;
+        this.rowMapper = rowMapper;
+        TransactionBatchWriter bulkWriter = properties.getWriter() == IngestionProperties.Writer.COPY ? copyWriter : jpaWriter;
+        this.batchWriter = new DeduplicatingBatchWriter(bulkWriter, upsertWriter, idFilter);
+        this.eventPublisher = eventPublisher;
+        this.checkpointStore = checkpointStore;
+        this.idFilter = idFilter;
+        this.workerThreads = workerThreads;
+    }
+
+    /**
+     * A pipeline that checkpoints under {@code fileHash} and skips rows an earlier run of the same file committed.
+     */
+    public IngestionPipeline create(String source, String fileHash) {
+        DuplicateGuard guard = idFilter.hasUniqueIndex() ? DuplicateGuard.UNIQUE_INDEX : DuplicateGuard.EXISTS_CHECK;
+        return new IngestionPipeline(source, fileHash, properties, rowMapper, batchWriter, eventPublisher,
+                checkpointStore, guard, workerThreads);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.tax.ingestion;
+
+import java.util.List;
+
+/**
+ * Outcome of one run. {@code rowsSkipped} were committed by an earlier run of the same file and not read again;
+ * {@code rowsDuplicate} were read but their transaction id was already stored; {@code duplicateGuard} says how that
+ * was enforced.
+ */
+public record IngestionReport(
+        String source,
+        long rowsRead,
+        long rowsSkipped,
+        long rowsWritten,
+        long rowsDuplicate,
+        long rowsFailed,
+        DuplicateGuard duplicateGuard,
+        long elapsedMillis,
+        List<StageReport> stages,
+        List<SourceReport> sources) {
+}
@@ -0,0 +1,26 @@
+package com.example.tax.ingestion;
+
+import com.core.lib.entity.Transaction;
+import com.example.tax.repository.TransactionRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Log4j2
+public class JpaTransactionBatchWriter implements TransactionBatchWriter {
+
+    private final TransactionRepository transactionRepository;
+
+    public JpaTransactionBatchWriter(TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+    }
+
+    @Override
+    public List<Transaction> write(List<Transaction> batch) {
+        transactionRepository.saveAll(batch);
+        log.debug("Saved batch of {} records", batch.size());
+        return batch;
+    }
+}
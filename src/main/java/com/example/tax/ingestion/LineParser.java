@@ -0,0 +1,22 @@
+package com.example.tax.ingestion;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes one record of a text upload into a row buffer indexed by {@link TransactionField#ordinal()}. Instances keep
+ * per-thread state and are used by a single chunk reader.
+ */
+interface LineParser {
+
+    void parse(byte[] line, int length, String[] row) throws Exception;
+
+    /**
+     * Index of the {@code '\n'} that ends the record starting at {@code from}, or {@code limit} if the buffer ends
+     * first. A record is one line unless the format lets values span lines.
+     */
+    default int recordEnd(ByteBuffer buffer, int from, int limit) {
+        int end = from;
+        while (end < limit && buffer.get(end) != '\n') end++;
+        return end;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.tax.ingestion;
+
+import com.example.tax.config.IngestionProperties;
+import com.example.tax.utility.WorkerThreads;
+import com.fasterxml.jackson.core.JsonFactory;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads CSV and NDJSON uploads by memory-mapping the spooled file in record-aligned chunks and parsing the chunks in
+ * parallel, each into its own pipeline sink. Chunks are first cut after line breaks; for CSV, where a quoted value may
+ * contain line breaks, a parallel pre-scan moves any cut that landed inside a quoted value to the end of its record.
+ * <p>
+ * A chunk's rows are numbered from its first line, and its checkpoint is stored under its byte offset in the file.
+ */
+@Component
+@Log4j2
+public class MappedTextIngester {
+
+    private static final int BOUNDARY_SCAN_BYTES = 8 * 1024;
+    private static final int INITIAL_LINE_BYTES = 1024;
+    private static final int MAX_HEADER_BYTES = 1024 * 1024;
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final IngestionProperties properties;
+    private final WorkerThreads workerThreads;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public MappedTextIngester(IngestionProperties properties, WorkerThreads workerThreads) {
+        this.properties = properties;
+        this.workerThreads = workerThreads;
+    }
+
+    public void ingest(Path file, IngestionFormat format, IngestionPipeline pipeline) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = startsWithBom(channel, size) ? UTF8_BOM.length : 0;
+            ColumnPlan plan = ColumnPlan.positional();
+
+            if (format == IngestionFormat.CSV) {
+                long headerStart = dataStart;
+                dataStart = nextRecordStart(channel, headerStart, size, new CsvRecordScanner());
+                plan = ColumnPlan.fromHeader(readHeader(channel, headerStart, dataStart));
+            }
+
+            ColumnPlan csvPlan = plan;
+            ExecutorService chunkWorkers = Executors.newFixedThreadPool(properties.getChunkThreads(),
+                    workerThreads.named("ingest-chunk"));
+            try {
+                List<long[]> chunks = splitChunks(channel, dataStart, size);
+                if (format == IngestionFormat.CSV && chunks.size() > 1) {
+                    chunks = alignToRecords(channel, chunks, size, chunkWorkers);
+                }
+                log.info("Parsing {} {} chunks of {}", chunks.size(), format, file.getFileName());
+
+                List<Future<?>> chunkTasks = new ArrayList<>();
+                for (int i = 0; i < chunks.size(); i++) {
+                    long[] chunk = chunks.get(i);
+                    // Keyed by start offset: the first n records after a given offset are the same whatever the
+                    // chunk size, so a checkpoint stays valid when a re-run splits the file differently
+                    String name = format + " chunk at byte " + chunk[0];
+                    LineParser parser = format == IngestionFormat.CSV
+                            ? new CsvLineParser(csvPlan)
+                            : new NdjsonLineParser(jsonFactory);
+                    chunkTasks.add(chunkWorkers.submit(() -> {
+                        try (IngestionPipeline.RowSink sink = pipeline.newSink(name)) {
+                            parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]),
+                                    parser, sink);
+                        } catch (Exception e) {
+                            log.error("Failed to parse {}: {}", name, e.getMessage());
+                            pipeline.abort(e);
+                        }
+                    }));
+                }
+                for (Future<?> chunkTask : chunkTasks) {
+                    chunkTask.get();
+                }
+            } finally {
+                chunkWorkers.shutdownNow();
+            }
+        }
+    }
+
+    private void parseChunk(MappedByteBuffer buffer, LineParser parser, IngestionPipeline.RowSink sink) {
+        byte[] line = new byte[INITIAL_LINE_BYTES];
+        int limit = buffer.limit();
+        int position = 0;
+        int rowNum = 0;
+
+        while (position < limit) {
+            int end = parser.recordEnd(buffer, position, limit);
+
+            int length = end - position;
+            if (length > 0 && buffer.get(end - 1) == '\r') length--;
+            if (length > 0) {
+                if (line.length < length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(position, line, 0, length);
+
+                rowNum++;
+                String[] row = sink.newRow();
+                try {
+                    parser.parse(line, length, row);
+                    sink.accept(rowNum, row);
+                } catch (IngestionAbortedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    sink.reject(rowNum, row, e);
+                }
+            }
+            position = end + 1;
+        }
+    }
+
+    private List<long[]> splitChunks(FileChannel channel, long start, long size) throws IOException {
+        long chunkSize = Math.min(properties.getChunkSize().toBytes(), Integer.MAX_VALUE);
+        List<long[]> chunks = new ArrayList<>();
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            if (end < size) {
+                end = nextLineStart(channel, end, size);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Chunks cut after line breaks may start inside a quoted value. Each chunk is scanned in parallel as if it started
+     * a record. Walking them in order, a chunk whose start is right and whose scan ends inside a record extends to that
+     * record's end; the next chunk then starts there and is rescanned. Chunks swallowed whole by an extended one are
+     * dropped.
+     */
+    static List<long[]> alignToRecords(FileChannel channel, List<long[]> chunks, long size,
+                                               ExecutorService workers) throws Exception {
+        List<Future<CsvRecordScanner>> scans = new ArrayList<>(chunks.size());
+        for (long[] chunk : chunks) {
+            scans.add(workers.submit(() -> scan(channel, chunk[0], chunk[1])));
+        }
+
+        List<long[]> aligned = new ArrayList<>(chunks.size());
+        long start = chunks.get(0)[0];
+        for (int i = 0; i < chunks.size() && start < size; i++) {
+            long end = chunks.get(i)[1];
+            if (end <= start) continue;
+
+            CsvRecordScanner scanner = start == chunks.get(i)[0] ? scans.get(i).get() : scan(channel, start, end);
+            if (!scanner.atRecordStart()) {
+                end = nextRecordStart(channel, end, size, scanner);
+            }
+            aligned.add(new long[]{start, end});
+            start = end;
+        }
+        return aligned;
+    }
+
+    private static CsvRecordScanner scan(FileChannel channel, long start, long end) throws IOException {
+        CsvRecordScanner scanner = new CsvRecordScanner();
+        scanner.skip(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), 0, (int) (end - start));
+        return scanner;
+    }
+
+    private static List<String> readHeader(FileChannel channel, long start, long end) throws IOException {
+        if (end - start > MAX_HEADER_BYTES) {
+            throw new IllegalArgumentException("CSV header line is longer than " + MAX_HEADER_BYTES + " bytes");
+        }
+        ByteBuffer header = ByteBuffer.allocate((int) (end - start));
+        while (header.hasRemaining() && channel.read(header, start + header.position()) > 0) {
+            // keep reading until the whole line is in
+        }
+        byte[] bytes = header.array();
+        int length = header.position();
+        while (length > 0 && (bytes[length - 1] == '\n' || bytes[length - 1] == '\r')) length--;
+        return CsvLineParser.splitToList(bytes, length);
+    }
+
+    private static boolean startsWithBom(FileChannel channel, long size) throws IOException {
+        if (size < UTF8_BOM.length) return false;
+        ByteBuffer prefix = ByteBuffer.allocate(UTF8_BOM.length);
+        channel.read(prefix, 0);
+        return prefix.position() == UTF8_BOM.length && Arrays.equals(prefix.array(), UTF8_BOM);
+    }
+
+    // Offset just past the end of the record the scanner is in at 'from', or 'size' if the file ends first
+    private static long nextRecordStart(FileChannel channel, long from, long size, CsvRecordScanner scanner)
+            throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+        long position = from;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) break;
+            int next = scanner.nextRecordStart(window, 0, read);
+            if (next >= 0) {
+                return position + next;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Offset just past the first '\n' at or after 'from', or 'size' if there is none
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+        long position = from;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.tax.ingestion;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One JSON object per line. Keys are matched like CSV/Excel headers ({@code txnDate}, {@code txn_date}, ...); unknown
+ * keys and nested values are skipped.
+ */
+class NdjsonLineParser implements LineParser {
+
+    private final JsonFactory jsonFactory;
+    // Resolved key -> slot, so each distinct key is normalized once per chunk
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    NdjsonLineParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public void parse(byte[] line, int length, String[] row) throws Exception {
+        try (JsonParser parser = jsonFactory.createParser(line, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                int slot = slots.computeIfAbsent(name, NdjsonLineParser::resolve);
+                if (slot != ColumnPlan.UNMAPPED && token != JsonToken.VALUE_NULL) {
+                    row[slot] = parser.getText();
+                }
+            }
+        }
+    }
+
+    private static int resolve(String name) {
+        TransactionField field = TransactionField.fromHeader(name);
+        return field != null ? field.ordinal() : ColumnPlan.UNMAPPED;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.tax.ingestion;
+
+import java.time.Instant;
+
+/**
+ * Outcome of one replay call. Pass {@code lastTxnDate}/{@code lastId} back as the cursor to continue. {@code failed}
+ * counts events the broker did not acknowledge; if it is non-zero, replay the same range again, since consumers
+ * tolerate duplicates.
+ */
+public record ReplayResult(long published, long failed, Instant lastTxnDate, Long lastId, boolean completed) {
+}
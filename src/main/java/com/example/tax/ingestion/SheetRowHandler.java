@@ -0,0 +1,69 @@
+package com.example.tax.ingestion;
+
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SAX row callback for one sheet. Row 0 is the header and builds the sheet's {@link ColumnPlan}; every later cell is
+ * written straight into its field slot of a pooled row buffer, so columns may be reordered or extra.
+ */
+public class SheetRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+    private final IngestionPipeline.RowSink sink;
+    private final List<String> headers = new ArrayList<>();
+    private ColumnPlan plan;
+    private int rowNum;
+    private String[] rowData;
+
+    public SheetRowHandler(IngestionPipeline.RowSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void startRow(int row) {
+        rowNum = row;
+        if (rowNum != 0) {
+            rowData = sink.newRow();
+        }
+    }
+
+    @Override
+    public void endRow(int row) {
+        if (rowNum == 0) {
+            plan = ColumnPlan.fromHeader(headers);
+            return;
+        }
+        if (plan == null) {
+            plan = ColumnPlan.positional();
+        }
+
+        // mapping and persistence happen on the pipeline's worker threads
+        sink.accept(rowNum, rowData);
+        rowData = null;
+    }
+
+    @Override
+    public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+        int colIndex = ColumnPlan.columnIndex(cellReference);
+        if (rowNum == 0) {
+            while (headers.size() < colIndex) {
+                headers.add(null);
+            }
+            headers.add(formattedValue);
+            return;
+        }
+
+        ColumnPlan active = plan != null ? plan : ColumnPlan.positional();
+        int slot = active.slot(colIndex);
+        if (slot != ColumnPlan.UNMAPPED) {
+            rowData[slot] = formattedValue;
+        }
+    }
+
+    @Override
+    public void headerFooter(String text, boolean isHeader, String tagName) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.tax.ingestion;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Completion tracking for one source of a run. Rows finish out of order across mapper and writer threads; the
+ * watermark is the highest row number below which every row has finished, which is what gets checkpointed.
+ */
+class SourceProgress {
+
+    private final String name;
+    private final long resumeAfter;
+    private final ReentrantLock lock = new ReentrantLock();
+    // bit i = row (watermark + 1 + i) has finished; shifted down as the watermark advances
+    private BitSet finished = new BitSet();
+    private volatile long watermark;
+    private volatile long persisted;
+
+    SourceProgress(String name, long resumeAfter) {
+        this.name = name;
+        this.resumeAfter = resumeAfter;
+        this.watermark = resumeAfter;
+        this.persisted = resumeAfter;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Rows at or below this number were committed by an earlier run of the same file.
+     */
+    long resumeAfter() {
+        return resumeAfter;
+    }
+
+    long watermark() {
+        return watermark;
+    }
+
+    void finish(long rowNum) {
+        finishRange(rowNum, rowNum);
+    }
+
+    void finishRange(long from, long to) {
+        lock.lock();
+        try {
+            long base = watermark + 1;
+            long start = Math.max(from, base);
+            if (start > to) return;
+
+            finished.set((int) (start - base), (int) (to - base) + 1);
+            int advance = finished.nextClearBit(0);
+            if (advance > 0) {
+                finished = finished.get(advance, Math.max(advance, finished.length()));
+                watermark = base + advance - 1;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * True if the watermark moved since the last {@link #markPersisted}.
+     */
+    boolean dirty() {
+        return watermark > persisted;
+    }
+
+    void markPersisted(long rowNum) {
+        persisted = rowNum;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.tax.ingestion;
+
+/**
+ * Rows read and wall time of one input source of a run, e.g. one sheet of a workbook.
+ */
+public record SourceReport(String name, long rows, long elapsedMillis) {
+}
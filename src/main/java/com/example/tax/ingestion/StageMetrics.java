@@ -0,0 +1,60 @@
+package com.example.tax.ingestion;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-stage counters. {@code busy} is time spent doing the stage's own work, {@code blocked} is time spent waiting
+ * for room in the downstream queue - a stage that is mostly blocked is waiting on the stage after it.
+ */
+public class StageMetrics {
+
+    private final String stage;
+    private final AtomicInteger threads;
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+
+    public StageMetrics(String stage, int threads) {
+        this.stage = stage;
+        this.threads = new AtomicInteger(threads);
+    }
+
+    public void addThread() {
+        threads.incrementAndGet();
+    }
+
+    public void processed(long count, long nanos) {
+        rows.add(count);
+        busyNanos.add(nanos);
+    }
+
+    public void failed(long count) {
+        failed.add(count);
+    }
+
+    public void blocked(long nanos) {
+        blockedNanos.add(nanos);
+    }
+
+    public long rows() {
+        return rows.sum();
+    }
+
+    public long failedRows() {
+        return failed.sum();
+    }
+
+    public StageReport report(long elapsedNanos) {
+        long processed = rows.sum();
+        long busy = busyNanos.sum();
+        double elapsedSeconds = Math.max(elapsedNanos, 1) / 1e9;
+        // rows/sec this stage could sustain on its own if it never had to wait
+        int threadCount = Math.max(threads.get(), 1);
+        double capacity = busy == 0 ? 0 : processed / (busy / 1e9 / threadCount);
+        return new StageReport(stage, threadCount, processed, failed.sum(),
+                busy / 1_000_000, blockedNanos.sum() / 1_000_000,
+                Math.round(processed / elapsedSeconds), Math.round(capacity));
+    }
+}
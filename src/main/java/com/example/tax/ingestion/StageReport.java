@@ -0,0 +1,12 @@
+package com.example.tax.ingestion;
+
+public record StageReport(
+        String stage,
+        int threads,
+        long rows,
+        long failedRows,
+        long busyMillis,
+        long blockedMillis,
+        long rowsPerSecond,
+        long capacityRowsPerSecond) {
+}
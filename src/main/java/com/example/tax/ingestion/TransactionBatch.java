@@ -0,0 +1,54 @@
+package com.example.tax.ingestion;
+
+import com.core.lib.entity.Transaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mapped transactions on their way to a writer, together with the source row each one came from so the rows can be
+ * marked finished once the batch is committed.
+ */
+class TransactionBatch {
+
+    private final List<Transaction> transactions;
+    private SourceProgress[] sources;
+    private long[] rowNums;
+
+    TransactionBatch(int capacity) {
+        this.transactions = new ArrayList<>(capacity);
+        this.sources = new SourceProgress[capacity];
+        this.rowNums = new long[capacity];
+    }
+
+    void add(Transaction transaction, SourceProgress source, long rowNum) {
+        int i = transactions.size();
+        if (i == rowNums.length) {
+            int capacity = Math.max(1, i * 2);
+            sources = Arrays.copyOf(sources, capacity);
+            rowNums = Arrays.copyOf(rowNums, capacity);
+        }
+        transactions.add(transaction);
+        sources[i] = source;
+        rowNums[i] = rowNum;
+    }
+
+    List<Transaction> transactions() {
+        return transactions;
+    }
+
+    int size() {
+        return transactions.size();
+    }
+
+    boolean isEmpty() {
+        return transactions.isEmpty();
+    }
+
+    void finishRows() {
+        for (int i = 0; i < transactions.size(); i++) {
+            sources[i].finish(rowNums[i]);
+        }
+    }
+}
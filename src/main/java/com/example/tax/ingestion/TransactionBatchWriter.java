@@ -0,0 +1,17 @@
+package com.example.tax.ingestion;
+
+import com.core.lib.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * Write stage of the ingestion pipeline. Implementations are called concurrently from the writer threads,
+ * each call with its own batch.
+ */
+public interface TransactionBatchWriter {
+
+    /**
+     * Persists the batch and returns the transactions actually inserted; rows skipped as duplicates are left out.
+     */
+    List<Transaction> write(List<Transaction> batch);
+}
@@ -0,0 +1,47 @@
+package com.example.tax.ingestion;
+
+import com.core.lib.entity.Transaction;
+import com.example.tax.messaging.KafkaBulkPublisher;
+import com.example.tax.messaging.PublisherMetrics;
+import com.example.tax.messaging.TaxCalculationMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes {@code tax_calculation} events for transactions. Called by the pipeline's writer threads with each batch
+ * right after it is persisted, and by the replay path for deliberate backfills. Events are keyed by account number
+ * and go out through the bulk publisher; the caller opens one {@link KafkaBulkPublisher.Batch} per run and awaits
+ * its acks at the end.
+ */
+@Component
+public class TransactionEventPublisher {
+
+    public static final String TAX_CALCULATION_TOPIC = "tax_calculation";
+
+    private final KafkaBulkPublisher bulkPublisher;
+
+    public TransactionEventPublisher(KafkaBulkPublisher bulkPublisher) {
+        this.bulkPublisher = bulkPublisher;
+    }
+
+    public KafkaBulkPublisher.Batch begin() {
+        return bulkPublisher.begin();
+    }
+
+    public PublisherMetrics metrics() {
+        return bulkPublisher.metrics();
+    }
+
+    public void publish(KafkaBulkPublisher.Batch batch, List<Transaction> transactions) throws InterruptedException {
+        for (Transaction transaction : transactions) {
+            batch.send(TAX_CALCULATION_TOPIC, eventKey(transaction),
+                    new TaxCalculationMessage(transaction.getTransactionId(), transaction.getAmount()));
+        }
+    }
+
+    // Keyed by account, so an account's events share a partition and are consumed in order
+    private static String eventKey(Transaction transaction) {
+        return transaction.getAccountNumber() != null ? transaction.getAccountNumber() : transaction.getTransactionId();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.tax.ingestion;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link com.core.lib.entity.Transaction} columns an upload can carry, in the canonical (legacy positional)
+ * order. A decoded row is a {@code String[]} indexed by {@link #ordinal()}. Required fields are the ones deduplication,
+ * event keying and tax calculation depend on; a header without them is reported.
+ */
+public enum TransactionField {
+
+    TXN_DATE(true, "txndate", "transactiondate", "date"),
+    TRANSACTION_ID(true, "transactionid", "txnid"),
+    ACCOUNT_NUMBER(true, "accountnumber", "accountno", "account"),
+    CUSTOMER_NAME("customername", "customer"),
+    MERCHANT_NAME("merchantname", "merchant"),
+    AMOUNT(true, "amount"),
+    CURRENCY("currency"),
+    PAYMENT_METHOD("paymentmethod"),
+    STATUS("status"),
+    CATEGORY("category"),
+    SUB_CATEGORY("subcategory"),
+    COUNTRY("country"),
+    CITY("city"),
+    CHANNEL("channel"),
+    REWARD_POINTS("rewardpoints"),
+    SETTLEMENT_DATE("settlementdate"),
+    REMARKS("remarks");
+
+    public static final int COUNT = values().length;
+
+    private static final Map<String, TransactionField> BY_NAME = new HashMap<>();
+
+    static {
+        for (TransactionField field : values()) {
+            for (String alias : field.aliases) {
+                BY_NAME.put(alias, field);
+            }
+        }
+    }
+
+    private final boolean required;
+    private final String[] aliases;
+
+    TransactionField(String... aliases) {
+        this(false, aliases);
+    }
+
+    TransactionField(boolean required, String... aliases) {
+        this.required = required;
+        this.aliases = aliases;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * Resolves a header cell such as "Txn Date", "txn_date" or "TXN-DATE"; null if the header is not a known column.
+     */
+    public static TransactionField fromHeader(String header) {
+        if (header == null) return null;
+
+        StringBuilder normalized = new StringBuilder(header.length());
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return BY_NAME.get(normalized.toString());
+    }
+}
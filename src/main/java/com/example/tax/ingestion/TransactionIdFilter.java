@@ -0,0 +1,109 @@
+package com.example.tax.ingestion;
+
+import com.example.tax.config.IngestionProperties;
+import com.example.tax.utility.BloomFilter;
+import com.example.tax.utility.ThreadFactories;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory Bloom filter over every stored {@code transaction_id}, so ingestion can tell "definitely new" rows (bulk
+ * path) from "maybe seen" rows (upsert path) without a lookup per row. The filter is filled from the table in the
+ * background after startup; until then every row counts as maybe seen. At startup the unique index on
+ * {@code transaction_id} that the upsert relies on is created if missing; until it is known to exist,
+ * {@link #hasUniqueIndex()} is false and ingestion falls back to {@link DuplicateGuard#EXISTS_CHECK}.
+ */
+@Component
+@Log4j2
+public class TransactionIdFilter {
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestionProperties properties;
+    private final BloomFilter filter;
+    private final LongAdder keys = new LongAdder();
+    private volatile boolean loaded;
+    private volatile boolean uniqueIndex;
+
+    public TransactionIdFilter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               IngestionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.filter = new BloomFilter(properties.getDedupExpectedIds(), properties.getDedupFalsePositiveRate());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        ThreadFactories.named("txn-id-filter").newThread(() -> {
+            ensureUniqueIndex();
+            load();
+        }).start();
+    }
+
+    /**
+     * Records the id and returns true only if it was definitely not seen before. Two writers racing on the same new
+     * id may both get true; the bulk path then hits the unique index and the batch is retried through the upsert.
+     */
+    public boolean claim(String transactionId) {
+        if (transactionId == null) {
+            return true;
+        }
+        boolean unseen = filter.put(transactionId);
+        if (unseen) {
+            keys.increment();
+        }
+        return unseen && loaded;
+    }
+
+    public boolean hasUniqueIndex() {
+        return uniqueIndex;
+    }
+
+    private void ensureUniqueIndex() {
+        String table = properties.getCopyTable();
+        String index = table.replaceAll("\\W", "_") + "_transaction_id_key";
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + index + " ON " + table + " (transaction_id)");
+            uniqueIndex = true;
+        } catch (Exception e) {
+            // typically duplicates already stored; they have to be cleaned up before the index can be built
+            log.error("Could not create unique index {} on {}.transaction_id: {}. Ingestion skips the bulk path and "
+                    + "checks every row for an existing id instead", index, table, e.getMessage());
+        }
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        try {
+            // a cursor needs a transaction in PostgreSQL, otherwise the driver buffers the whole result
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement("SELECT transaction_id FROM " + properties.getCopyTable()
+                        + " WHERE transaction_id IS NOT NULL");
+                statement.setFetchSize(LOAD_FETCH_SIZE);
+                return statement;
+            }, rs -> {
+                if (filter.put(rs.getString(1))) {
+                    keys.increment();
+                }
+            }));
+            loaded = true;
+            log.info("Loaded {} transaction ids into the dedup filter ({} bits) in {} ms", keys.sum(),
+                    filter.bitCount(), (System.nanoTime() - start) / 1_000_000);
+            if (keys.sum() > properties.getDedupExpectedIds()) {
+                log.warn("Dedup filter holds more ids than ingestion.dedup-expected-ids={}, false positives will "
+                        + "rise", properties.getDedupExpectedIds());
+            }
+        } catch (Exception e) {
+            log.error("Failed to load transaction ids, every row goes through the upsert path: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.tax.ingestion;
+
+import com.core.lib.entity.Transaction;
+import com.example.tax.utility.ExcelFieldParser;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Maps one decoded row, indexed by {@link TransactionField#ordinal()}, to a {@link Transaction}. Stateless and safe to
+ * share between mapper threads.
+ */
+@Component
+public class TransactionRowMapper {
+
+    public Transaction mapRowToEntity(String[] rowData) {
+        Transaction txn = new Transaction();
+
+        txn.setTxnDate(isBlank(rowData[0]) ? null : ExcelFieldParser.parseInstant(rowData[0]));
+        txn.setTransactionId(rowData[1]);
+        txn.setAccountNumber(rowData[2]);
+        txn.setCustomerName(rowData[3]);
+        txn.setMerchantName(rowData[4]);
+        txn.setAmount(isBlank(rowData[5]) ? null : ExcelFieldParser.parseDouble(rowData[5]));
+        txn.setCurrency(rowData[6]);
+        txn.setPaymentMethod(rowData[7]);
+        txn.setStatus(rowData[8]);
+        txn.setCategory(rowData[9]);
+        txn.setSubCategory(rowData[10]);
+        txn.setCountry(rowData[11]);
+        txn.setCity(rowData[12]);
+        txn.setChannel(rowData[13]);
+        txn.setRewardPoints(isBlank(rowData[14]) ? null : ExcelFieldParser.parseInt(rowData[14]));
+        txn.setSettlementDate(isBlank(rowData[15]) ? null : ExcelFieldParser.parseLocalDate(rowData[15]));
+        txn.setRemarks(rowData[16]);
+
+        return txn;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
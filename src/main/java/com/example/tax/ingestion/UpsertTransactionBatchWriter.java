@@ -0,0 +1,97 @@
+package com.example.tax.ingestion;
+
+import com.core.lib.entity.Transaction;
+import com.example.tax.config.IngestionProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batched {@code INSERT ... ON CONFLICT DO NOTHING}: rows whose {@code transaction_id} is already stored are skipped
+ * by the unique index instead of failing the batch. Used for rows the id filter could not rule out as duplicates, and
+ * for batches the bulk path rejected.
+ * <p>
+ * {@link #writeIfAbsent} covers a table without that index: each row is inserted only if no row with its id exists.
+ */
+@Component
+@Log4j2
+public class UpsertTransactionBatchWriter implements TransactionBatchWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertSql;
+    private final String insertIfAbsentSql;
+
+    public UpsertTransactionBatchWriter(JdbcTemplate jdbcTemplate, IngestionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertSql = "INSERT INTO " + properties.getCopyTable() + " (" + CopyTransactionBatchWriter.COLUMNS + ") "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+        this.insertIfAbsentSql = "INSERT INTO " + properties.getCopyTable() + " (" + CopyTransactionBatchWriter.COLUMNS
+                + ") SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM "
+                + properties.getCopyTable() + " WHERE transaction_id = ?)";
+    }
+
+    @Override
+    public List<Transaction> write(List<Transaction> batch) {
+        return write(insertSql, batch, false);
+    }
+
+    public List<Transaction> writeIfAbsent(List<Transaction> batch) {
+        return write(insertIfAbsentSql, batch, true);
+    }
+
+    private List<Transaction> write(String sql, List<Transaction> batch, boolean bindIdCheck) {
+        int[] counts = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Transaction txn = batch.get(i);
+                bind(ps, txn);
+                if (bindIdCheck) {
+                    ps.setString(18, txn.getTransactionId());
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+
+        List<Transaction> inserted = new ArrayList<>(batch.size());
+        for (int i = 0; i < counts.length; i++) {
+            // the driver may not report per-row counts; such rows are treated as inserted
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                inserted.add(batch.get(i));
+            }
+        }
+        log.debug("Upserted batch of {} records, {} skipped as duplicates", batch.size(), batch.size() - inserted.size());
+        return inserted;
+    }
+
+    private static void bind(PreparedStatement ps, Transaction txn) throws SQLException {
+        ps.setTimestamp(1, txn.getTxnDate() != null ? Timestamp.from(txn.getTxnDate()) : null);
+        ps.setString(2, txn.getTransactionId());
+        ps.setString(3, txn.getAccountNumber());
+        ps.setString(4, txn.getCustomerName());
+        ps.setString(5, txn.getMerchantName());
+        ps.setObject(6, txn.getAmount());
+        ps.setString(7, txn.getCurrency());
+        ps.setString(8, txn.getPaymentMethod());
+        ps.setString(9, txn.getStatus());
+        ps.setString(10, txn.getCategory());
+        ps.setString(11, txn.getSubCategory());
+        ps.setString(12, txn.getCountry());
+        ps.setString(13, txn.getCity());
+        ps.setString(14, txn.getChannel());
+        ps.setObject(15, txn.getRewardPoints());
+        ps.setObject(16, txn.getSettlementDate());
+        ps.setString(17, txn.getRemarks());
+    }
+}
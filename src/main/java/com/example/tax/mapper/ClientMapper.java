@@ -0,0 +1,69 @@
+package com.example.tax.mapper;
+
+import com.core.lib.entity.Client;
+import com.core.lib.entity.ClientContact;
+import com.core.lib.entity.Country;
+import com.core.lib.model.ClientContactDto;
+import com.core.lib.model.ClientDto;
+import com.core.lib.model.CountryDto;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Client entities to and from their DTOs. MapStruct generates the implementation at compile time: every property the
+ * two sides share by name is copied with plain getter and setter calls, as ModelMapper did by reflection on every
+ * call. Properties only one side has are left alone, also as with ModelMapper. Stateless and thread-safe.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface ClientMapper {
+
+    /**
+     * A new client with the DTO's details; country and contacts are resolved and set by the caller.
+     */
+    @Mapping(target = "country", ignore = true)
+    @Mapping(target = "contacts", ignore = true)
+    Client toClient(ClientDto dto);
+
+    @Mapping(target = "client", ignore = true)
+    ClientContact toContact(ClientContactDto dto);
+
+    Country toCountry(CountryDto dto);
+
+    ClientDto toDto(Client client);
+
+    ClientContactDto toDto(ClientContact contact);
+
+    CountryDto toDto(Country country);
+
+    default ClientContact toContact(ClientContactDto dto, Client client) {
+        ClientContact contact = toContact(dto);
+        contact.setClient(client);
+        return contact;
+    }
+
+    /**
+     * Copies the details a client update may change; country, contacts, ids and creation audit are left alone.
+     */
+    default void updateClient(Client client, ClientDto dto) {
+        client.setName(dto.getName());
+        client.setEmail(dto.getEmail());
+        client.setPhoneNumber(dto.getPhoneNumber());
+        client.setAddress(dto.getAddress());
+        client.setPanNumber(dto.getPanNumber());
+        client.setPassportNumber(dto.getPassportNumber());
+        client.setTaxResidencyCountry(dto.getTaxResidencyCountry());
+        client.setKycStatus(dto.getKycStatus());
+        client.setRiskProfile(dto.getRiskProfile());
+        client.setPreferredCurrency(dto.getPreferredCurrency());
+        // updates carry the editing user in createdBy
+        client.setUpdatedBy(dto.getCreatedBy());
+    }
+
+    default void updateContact(ClientContact contact, ClientContactDto dto) {
+        contact.setContactType(dto.getContactType());
+        contact.setContactValue(dto.getContactValue());
+        contact.setIsPrimary(dto.getIsPrimary());
+    }
+}
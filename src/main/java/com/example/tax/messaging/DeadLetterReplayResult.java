@@ -0,0 +1,16 @@
+package com.example.tax.messaging;
+
+/**
+ * Outcome of one dead-letter replay. {@code skipped} records had no value to re-drive. The consumed offsets are only
+ * {@code committed} when every re-driven message was acknowledged; otherwise the next replay starts over from the
+ * same place.
+ */
+public record DeadLetterReplayResult(
+        String topic,
+        String deadLetterTopic,
+        long read,
+        long skipped,
+        long republished,
+        long failed,
+        boolean committed) {
+}
@@ -0,0 +1,163 @@
+package com.example.tax.messaging;
+
+import com.example.tax.config.KafkaPublisherProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous producer for bulk pushes. Sends go out without waiting for their ack; a semaphore caps the sends
+ * awaiting an ack, so a slow or unavailable broker blocks the caller instead of buffering without bound. Every send's
+ * completion is counted, and a {@link Batch} waits for all of its acks once at the end of the push.
+ * <p>
+ * Typical use: {@code batch = publisher.begin()}, {@code batch.send(...)} per message, then {@code batch.await()}.
+ */
+@Component
+@Log4j2
+public class KafkaBulkPublisher {
+
+    private final DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final Duration awaitTimeout;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public KafkaBulkPublisher(KafkaProperties kafkaProperties, ObjectProvider<SslBundles> sslBundles,
+                              KafkaPublisherProperties properties) {
+        Map<String, Object> config = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, (int) properties.getBatchSize().toBytes());
+        config.put(ProducerConfig.LINGER_MS_CONFIG, (int) properties.getLinger().toMillis());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getCompressionType());
+        config.put(ProducerConfig.ACKS_CONFIG, properties.getAcks());
+        // Own factory rather than a second template bean, which would switch off Boot's default KafkaTemplate
+        this.producerFactory = new DefaultKafkaProducerFactory<>(config);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.maxInFlight = properties.getMaxInFlight();
+        this.permits = new Semaphore(maxInFlight);
+        this.awaitTimeout = properties.getAwaitTimeout();
+    }
+
+    public Batch begin() {
+        return new Batch();
+    }
+
+    public PublisherMetrics metrics() {
+        return new PublisherMetrics(maxInFlight - permits.availablePermits(), maxInFlight,
+                sent.sum(), succeeded.sum(), failed.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // closing the producer sends what is still buffered
+        producerFactory.destroy();
+    }
+
+    /**
+     * Sends of one bulk push. Sends may come from several threads; {@link #await()} is called once, after the last.
+     */
+    public final class Batch {
+
+        private final AtomicLong pending = new AtomicLong();
+        private final LongAdder batchSent = new LongAdder();
+        private final LongAdder batchSucceeded = new LongAdder();
+        private final LongAdder batchFailed = new LongAdder();
+        private final AtomicBoolean failureLogged = new AtomicBoolean();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition drained = lock.newCondition();
+
+        private Batch() {
+        }
+
+        /**
+         * Queues one message, blocking while the publisher is at its in-flight limit.
+         */
+        public void send(String topic, String key, Object value) throws InterruptedException {
+            send(new ProducerRecord<>(topic, key, value));
+        }
+
+        public void send(ProducerRecord<String, Object> record) throws InterruptedException {
+            String topic = record.topic();
+            permits.acquire();
+            pending.incrementAndGet();
+            batchSent.increment();
+            sent.increment();
+            try {
+                kafkaTemplate.send(record)
+                        .whenComplete((result, e) -> completed(topic, e));
+            } catch (Exception e) {
+                // serialization errors and a full buffer surface here rather than in the callback
+                completed(topic, e);
+            }
+        }
+
+        public PublishResult await() throws InterruptedException {
+            return await(awaitTimeout);
+        }
+
+        /**
+         * Pushes out lingering records and waits until every send of this batch is acknowledged or failed.
+         */
+        public PublishResult await(Duration timeout) throws InterruptedException {
+            kafkaTemplate.flush();
+            long remaining = timeout.toNanos();
+            lock.lock();
+            try {
+                while (pending.get() > 0 && remaining > 0) {
+                    remaining = drained.awaitNanos(remaining);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            PublishResult result = new PublishResult(batchSent.sum(), batchSucceeded.sum(), batchFailed.sum(),
+                    pending.get());
+            if (!result.isComplete()) {
+                log.warn("Bulk push finished with {} failed and {} unacknowledged of {} sends",
+                        result.failed(), result.unacknowledged(), result.sent());
+            }
+            return result;
+        }
+
+        private void completed(String topic, Throwable e) {
+            if (e == null) {
+                batchSucceeded.increment();
+                succeeded.increment();
+            } else {
+                batchFailed.increment();
+                failed.increment();
+                // one line per push; the total is reported by await()
+                if (failureLogged.compareAndSet(false, true)) {
+                    log.error("Failed to publish to {}: {}", topic, e.getMessage(), e);
+                }
+            }
+            permits.release();
+            if (pending.decrementAndGet() == 0) {
+                lock.lock();
+                try {
+                    drained.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.tax.messaging;
+
+import com.example.tax.config.TaxCalculationProperties;
+import com.example.tax.utility.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a consumer's poll on several threads without reordering any key. Items are split into lanes by key hash,
+ * keeping their order within a lane; every lane is handed to the handler as one list, and lanes run in parallel.
+ * {@link #process} returns once all lanes are done, so the caller acknowledges the poll only after all of its items.
+ */
+@Component
+public class KeyedLaneExecutor {
+
+    private final int lanes;
+    private final ExecutorService executor;
+
+    public KeyedLaneExecutor(TaxCalculationProperties properties, WorkerThreads workerThreads) {
+        this.lanes = Math.max(properties.getLanes(), 1);
+        this.executor = Executors.newFixedThreadPool(lanes, workerThreads.named("tax-lane"));
+    }
+
+    /**
+     * Rethrows the first lane's failure after every lane has finished.
+     */
+    public <T> void process(List<T> items, Function<T, String> key, Consumer<List<T>> handler) {
+        List<List<T>> byLane = split(items, key);
+        if (byLane.size() <= 1) {
+            byLane.forEach(handler);
+            return;
+        }
+
+        List<Future<?>> running = new ArrayList<>(byLane.size());
+        for (List<T> lane : byLane) {
+            running.add(executor.submit(() -> handler.accept(lane)));
+        }
+        RuntimeException failure = null;
+        for (Future<?> lane : running) {
+            try {
+                lane.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause
+                            ? cause : new IllegalStateException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for lanes", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Non-empty lanes only, each in arrival order
+    private <T> List<List<T>> split(List<T> items, Function<T, String> key) {
+        List<List<T>> byLane = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (T item : items) {
+            String itemKey = key.apply(item);
+            int lane = itemKey == null ? 0 : Math.floorMod(itemKey.hashCode(), lanes);
+            byLane.get(lane).add(item);
+        }
+        byLane.removeIf(List::isEmpty);
+        return byLane;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.tax.messaging;
+
+/**
+ * Outcome of one bulk push. {@code unacknowledged} sends had neither succeeded nor failed when the wait timed out.
+ */
+public record PublishResult(long sent, long succeeded, long failed, long unacknowledged) {
+
+    public boolean isComplete() {
+        return failed == 0 && unacknowledged == 0;
+    }
+}
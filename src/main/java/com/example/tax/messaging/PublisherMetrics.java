@@ -0,0 +1,12 @@
+package com.example.tax.messaging;
+
+/**
+ * Counters of the bulk publisher since startup. {@code inFlight} sends are waiting for their ack.
+ */
+public record PublisherMetrics(
+        long inFlight,
+        long maxInFlight,
+        long sent,
+        long succeeded,
+        long failed) {
+}
@@ -0,0 +1,14 @@
+package com.example.tax.messaging;
+
+/**
+ * Counters of the request-reply client since startup. {@code unmatched} are replies whose request had already timed
+ * out or was sent by another instance.
+ */
+public record RequestReplyMetrics(
+        long inFlight,
+        long sent,
+        long replied,
+        long timedOut,
+        long failed,
+        long unmatched) {
+}
@@ -0,0 +1,18 @@
+package com.example.tax.messaging;
+
+import java.util.Map;
+
+/**
+ * {@code tax_calculation}: a stored transaction whose tax should be computed.
+ */
+public record TaxCalculationMessage(String transactionId, Double amount) {
+
+    /**
+     * Reads the JSON map form ({@code transaction_id}, {@code amount}) still sent by older producers.
+     */
+    public static TaxCalculationMessage fromMap(Map<?, ?> map) {
+        Object amount = map.get("amount");
+        return new TaxCalculationMessage((String) map.get("transaction_id"),
+                amount instanceof Number number ? number.doubleValue() : null);
+    }
+}
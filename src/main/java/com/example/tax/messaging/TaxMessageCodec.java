@@ -0,0 +1,92 @@
+package com.example.tax.messaging;
+
+import com.example.tax.utility.BinaryReader;
+import com.example.tax.utility.BinaryWriter;
+
+import static com.example.tax.utility.BinaryWriter.nullableDoubleSize;
+import static com.example.tax.utility.BinaryWriter.stringSize;
+import static com.example.tax.utility.BinaryWriter.varLongSize;
+
+/**
+ * Compact binary form of the tax messages: a magic byte, a schema version, a type byte, then the fields in declaration
+ * order, encoded by {@link BinaryWriter} (varint longs, big-endian doubles, length-prefixed UTF-8 strings).
+ * <p>
+ * Schema evolution: fields may only be appended, with the version bumped. Readers decode the fields they know and
+ * ignore trailing bytes, so an older consumer can still read newer messages.
+ * <p>
+ * Encoding sizes the message first and writes straight into an exact-size array, so there is no intermediate buffer
+ * to grow or copy; no reflection is involved either way.
+ */
+public final class TaxMessageCodec {
+
+    // Not a valid first byte of a JSON document (or of UTF-8 text), so binary and JSON payloads can share a topic
+    static final byte MAGIC = (byte) 0xB7;
+    static final byte VERSION = 1;
+
+    static final byte TAX_CALCULATION = 1;
+    static final byte TAX_REQUEST = 2;
+    static final byte TAX_RESPONSE = 3;
+
+    private static final int HEADER_BYTES = 3;
+
+    private TaxMessageCodec() {
+    }
+
+    /**
+     * Binary form of a known message type, or null if {@code message} is not one.
+     */
+    public static byte[] encode(Object message) {
+        if (message instanceof TaxCalculationMessage m) {
+            return header(TAX_CALCULATION, stringSize(m.transactionId()) + nullableDoubleSize(m.amount()))
+                    .string(m.transactionId())
+                    .nullableDouble(m.amount())
+                    .toByteArray();
+        }
+        if (message instanceof TaxRequestMessage m) {
+            return header(TAX_REQUEST, varLongSize(m.id()) + stringSize(m.userName()) + 8)
+                    .varLong(m.id())
+                    .string(m.userName())
+                    .putDouble(m.income())
+                    .toByteArray();
+        }
+        if (message instanceof TaxResponseMessage m) {
+            return header(TAX_RESPONSE, varLongSize(m.id()) + stringSize(m.userName()) + 24)
+                    .varLong(m.id())
+                    .string(m.userName())
+                    .putDouble(m.income())
+                    .putDouble(m.tax())
+                    .putDouble(m.netIncome())
+                    .toByteArray();
+        }
+        return null;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= HEADER_BYTES && data[0] == MAGIC;
+    }
+
+    public static Object decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary tax message");
+        }
+        if (data[1] < 1) {
+            throw new IllegalArgumentException("Unsupported tax message version " + data[1]);
+        }
+        BinaryReader r = new BinaryReader(data, HEADER_BYTES);
+        return switch (data[2]) {
+            case TAX_CALCULATION -> new TaxCalculationMessage(r.string(), r.nullableDouble());
+            case TAX_REQUEST -> new TaxRequestMessage(r.varLong(), r.string(), r.getDouble());
+            case TAX_RESPONSE -> new TaxResponseMessage(r.varLong(), r.string(), r.getDouble(), r.getDouble(),
+                    r.getDouble());
+            default -> throw new IllegalArgumentException("Unknown tax message type " + data[2]);
+        };
+    }
+
+    // Exact size: header plus body, so the writer's array is handed over as is
+    private static BinaryWriter header(byte type, int bodySize) {
+        return new BinaryWriter(HEADER_BYTES + bodySize)
+                .putByte(MAGIC)
+                .putByte(VERSION)
+                .putByte(type);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.tax.messaging;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads {@link TaxMessageCodec} binary payloads into the typed messages and falls back to Spring's
+ * {@link JsonDeserializer} for JSON payloads, which without type headers become maps as before. Both formats can be
+ * on a topic at once while producers are upgraded.
+ */
+public class TaxMessageDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Map<String, Object> jsonConfigs = new HashMap<>(configs);
+        jsonConfigs.putIfAbsent(isKey ? JsonDeserializer.KEY_DEFAULT_TYPE : JsonDeserializer.VALUE_DEFAULT_TYPE,
+                LinkedHashMap.class.getName());
+        jsonDeserializer.configure(jsonConfigs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return TaxMessageCodec.isBinary(data) ? TaxMessageCodec.decode(data) : jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        return TaxMessageCodec.isBinary(data)
+                ? TaxMessageCodec.decode(data)
+                : jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.tax.messaging;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes the typed tax messages in {@link TaxMessageCodec}'s binary form and anything else, such as the JSON maps of
+ * other producers sharing the template, through Spring's {@link JsonSerializer}. A {@code byte[]} is taken to be an
+ * already serialized value, such as a dead-lettered payload that could not be read, and is sent unchanged.
+ */
+public class TaxMessageSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data instanceof byte[] raw) return raw;
+        byte[] binary = TaxMessageCodec.encode(data);
+        return binary != null ? binary : jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data instanceof byte[] raw) return raw;
+        byte[] binary = TaxMessageCodec.encode(data);
+        return binary != null ? binary : jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.tax.messaging;
+
+import java.util.Map;
+
+/**
+ * {@code tax_request}: recalculate the tax of one TaxRecord.
+ */
+public record TaxRequestMessage(long id, String userName, double income) {
+
+    /**
+     * Reads the JSON map form ({@code id}, {@code userName}, {@code income}) still sent by older producers.
+     */
+    public static TaxRequestMessage fromMap(Map<?, ?> map) {
+        return new TaxRequestMessage(toLong(map.get("id")), (String) map.get("userName"), toDouble(map.get("income")));
+    }
+
+    static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    static double toDouble(Object value) {
+        if (value instanceof Number number) return number.doubleValue();
+        if (value == null) return 0;
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
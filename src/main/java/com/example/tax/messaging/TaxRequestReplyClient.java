@@ -0,0 +1,165 @@
+package com.example.tax.messaging;
+
+import com.example.tax.config.RequestReplyProperties;
+import com.example.tax.utility.HashedTimerWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request-reply over {@code tax_request}. Each request carries a correlation id plus the reply topic and partition
+ * this instance reads, so the responder sends the reply back to the instance that asked. Outstanding requests expire
+ * on a timer wheel, which also keeps the pending map from leaking when a reply never comes.
+ */
+@Component
+@Log4j2
+public class TaxRequestReplyClient {
+
+    public static final String REQUEST_TOPIC = "tax_request";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final HashedTimerWheel timerWheel;
+    private final Map<String, CompletableFuture<TaxResponseMessage>> pending = new ConcurrentHashMap<>();
+    private final String instancePrefix = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final byte[] replyTopic;
+    private final byte[] replyPartition;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder replied = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+
+    public TaxRequestReplyClient(KafkaTemplate<String, Object> kafkaTemplate, RequestReplyProperties properties) {
+        int partition = properties.getPartition();
+        if (partition < 0 || partition >= properties.getPartitions()) {
+            throw new IllegalStateException("tax.reply.partition must be this instance's own partition of "
+                    + properties.getTopic() + ", between 0 and " + (properties.getPartitions() - 1) + "; was "
+                    + partition);
+        }
+        if (properties.getPartitions() > 1) {
+            log.warn("Reading replies from partition {} of {} ({} partitions); replicas sharing a partition each read "
+                            + "all of its replies, so give every replica its own tax.reply.partition",
+                    partition, properties.getTopic(), properties.getPartitions());
+        }
+        this.kafkaTemplate = kafkaTemplate;
+        this.timerWheel = new HashedTimerWheel("reply-timer", properties.getTick().toNanos(), TimeUnit.NANOSECONDS,
+                properties.getWheelSize());
+        this.replyTopic = properties.getTopic().getBytes(StandardCharsets.UTF_8);
+        this.replyPartition = ByteBuffer.allocate(Integer.BYTES).putInt(partition).array();
+    }
+
+    /**
+     * Sends one request; the future completes with the reply or fails with a {@link TimeoutException} at the
+     * deadline ({@link System#nanoTime()} based).
+     */
+    public CompletableFuture<TaxResponseMessage> request(TaxRequestMessage payload, long deadlineNanos) {
+        String correlationId = instancePrefix + "-" + sequence.incrementAndGet();
+        CompletableFuture<TaxResponseMessage> future = new CompletableFuture<>();
+        pending.put(correlationId, future);
+
+        HashedTimerWheel.Timeout timeout = timerWheel.schedule(() -> expire(correlationId),
+                deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        future.whenComplete((reply, error) -> timeout.cancel());
+
+        ProducerRecord<String, Object> record = new ProducerRecord<>(REQUEST_TOPIC, payload);
+        record.headers().add(KafkaHeaders.CORRELATION_ID, correlationId.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.REPLY_TOPIC, replyTopic);
+        record.headers().add(KafkaHeaders.REPLY_PARTITION, replyPartition);
+
+        sent.increment();
+        kafkaTemplate.send(record).whenComplete((result, error) -> {
+            if (error != null && pending.remove(correlationId) != null) {
+                failed.increment();
+                future.completeExceptionally(error);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Sends all requests under one deadline and waits for them together. The result is aligned with
+     * {@code requests}; requests without a reply by the deadline have a null entry.
+     */
+    public List<TaxResponseMessage> scatterGather(List<TaxRequestMessage> requests, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<CompletableFuture<TaxResponseMessage>> futures = new ArrayList<>(requests.size());
+        for (TaxRequestMessage request : requests) {
+            futures.add(request(request, deadline).exceptionally(error -> null));
+        }
+
+        // the timer wheel completes every future by the deadline plus one tick
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        List<TaxResponseMessage> replies = new ArrayList<>(futures.size());
+        for (CompletableFuture<TaxResponseMessage> future : futures) {
+            replies.add(future.join());
+        }
+        return replies;
+    }
+
+    @KafkaListener(id = "taxReplyListener", groupId = "tax_api_group",
+            topicPartitions = @TopicPartition(topic = "${tax.reply.topic:tax_response}",
+                    partitions = "${tax.reply.partition:0}"))
+    public void onReply(ConsumerRecord<String, Object> record) {
+        Header correlation = record.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+        CompletableFuture<TaxResponseMessage> future = correlation != null
+                ? pending.remove(new String(correlation.value(), StandardCharsets.UTF_8))
+                : null;
+        if (future == null) {
+            unmatched.increment();
+            return;
+        }
+
+        if (record.value() instanceof TaxResponseMessage reply) {
+            replied.increment();
+            future.complete(reply);
+        } else if (record.value() instanceof Map<?, ?> reply) {
+            replied.increment();
+            future.complete(TaxResponseMessage.fromMap(reply));
+        } else {
+            failed.increment();
+            future.completeExceptionally(new IllegalStateException("Unexpected reply type: "
+                    + (record.value() != null ? record.value().getClass().getName() : "null")));
+        }
+    }
+
+    public RequestReplyMetrics metrics() {
+        return new RequestReplyMetrics(pending.size(), sent.sum(), replied.sum(), timedOut.sum(), failed.sum(),
+                unmatched.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timerWheel.close();
+    }
+
+    private void expire(String correlationId) {
+        CompletableFuture<TaxResponseMessage> future = pending.remove(correlationId);
+        if (future != null) {
+            timedOut.increment();
+            future.completeExceptionally(new TimeoutException("No reply for request " + correlationId));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.tax.messaging;
+
+import java.util.Map;
+
+import static com.example.tax.messaging.TaxRequestMessage.toDouble;
+import static com.example.tax.messaging.TaxRequestMessage.toLong;
+
+/**
+ * {@code tax_response}: the recalculated tax for a {@link TaxRequestMessage}.
+ */
+public record TaxResponseMessage(long id, String userName, double income, double tax, double netIncome) {
+
+    /**
+     * Reads the JSON map form sent by older responders.
+     */
+    public static TaxResponseMessage fromMap(Map<?, ?> map) {
+        return new TaxResponseMessage(toLong(map.get("id")), (String) map.get("userName"), toDouble(map.get("income")),
+                toDouble(map.get("tax")), toDouble(map.get("netIncome")));
+    }
+}
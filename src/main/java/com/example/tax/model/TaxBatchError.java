@@ -0,0 +1,7 @@
+package com.example.tax.model;
+
+/**
+ * Result line for a request line that could not be processed; {@code line} is 1-based.
+ */
+public record TaxBatchError(long line, String error) {
+}
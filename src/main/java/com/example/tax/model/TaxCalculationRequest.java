@@ -0,0 +1,7 @@
+package com.example.tax.model;
+
+/**
+ * One line of a bulk tax calculation request stream.
+ */
+public record TaxCalculationRequest(String userName, Double income) {
+}
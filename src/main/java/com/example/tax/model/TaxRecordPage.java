@@ -0,0 +1,12 @@
+package com.example.tax.model;
+
+import com.core.lib.entity.TaxRecord;
+
+import java.util.List;
+
+/**
+ * One keyset page of tax records in id order. Pass {@code nextAfterId} as {@code afterId} to get the next page; it is
+ * null on the last page.
+ */
+public record TaxRecordPage(List<TaxRecord> records, Long nextAfterId) {
+}
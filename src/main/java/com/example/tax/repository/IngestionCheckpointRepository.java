@@ -0,0 +1,13 @@
+package com.example.tax.repository;
+
+import com.example.tax.entity.IngestionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IngestionCheckpointRepository extends JpaRepository<IngestionCheckpoint, String> {
+
+    List<IngestionCheckpoint> findByFileHash(String fileHash);
+}
@@ -1,13 +1,29 @@
 package com.example.tax.repository;
 
 import com.core.lib.entity.TaxRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaxRecordRepository extends JpaRepository<TaxRecord, Long> {
 
     Optional<TaxRecord> findByUserNameIgnoreCase(String userName);
+
+    // Keyset page: seeks past afterId on the primary key instead of counting past OFFSET rows
+    List<TaxRecord> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Server-side cursor; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TaxRecord> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,17 @@
+package com.example.tax.repository;
+
+import com.core.lib.entity.Transaction;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keyset pages over transactions ordered by (txn_date, id). Native SQL against the configured
+ * {@code ingestion.copy-table}, so reads and the bulk load always target the same table.
+ */
+public interface TransactionKeysetRepository {
+
+    List<Transaction> findFirstKeysetPage(int limit);
+
+    List<Transaction> findKeysetPageAfter(Instant txnDate, long id, int limit);
+}
@@ -0,0 +1,45 @@
+package com.example.tax.repository;
+
+import com.core.lib.entity.Transaction;
+import com.example.tax.config.IngestionProperties;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.Instant;
+import java.util.List;
+
+class TransactionKeysetRepositoryImpl implements TransactionKeysetRepository {
+
+    private final String firstPageSql;
+    private final String pageAfterSql;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    TransactionKeysetRepositoryImpl(IngestionProperties properties) {
+        String table = properties.getCopyTable();
+        this.firstPageSql = "SELECT * FROM " + table + " t WHERE t.txn_date IS NOT NULL "
+                + "ORDER BY t.txn_date, t.id LIMIT :limit";
+        // Keyset page: seeks straight to the cursor instead of counting past OFFSET rows
+        this.pageAfterSql = "SELECT * FROM " + table + " t WHERE (t.txn_date, t.id) > (:txnDate, :id) "
+                + "ORDER BY t.txn_date, t.id LIMIT :limit";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Transaction> findFirstKeysetPage(int limit) {
+        return entityManager.createNativeQuery(firstPageSql, Transaction.class)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Transaction> findKeysetPageAfter(Instant txnDate, long id, int limit) {
+        return entityManager.createNativeQuery(pageAfterSql, Transaction.class)
+                .setParameter("txnDate", txnDate)
+                .setParameter("id", id)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+}
@@ -4,10 +4,13 @@ import com.core.lib.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionKeysetRepository {
 
     Transaction findByTransactionId(String transactionId);
+
+    List<Transaction> findByTransactionIdIn(Collection<String> transactionIds);
 }
@@ -1,8 +1,20 @@
 package com.example.tax.service;
 
-import java.util.Map;
+import com.example.tax.messaging.TaxCalculationMessage;
+
+import java.util.List;
 
 public interface ComputationService {
 
-    void computeTaxCalculation(Map<String, Object> request);
+    /**
+     * Computes tax for one {@code tax_calculation} event. Requests that can never succeed (no id, unknown transaction,
+     * no amount) are logged and skipped; any other failure is thrown so the caller can retry the message.
+     */
+    void computeTaxCalculation(TaxCalculationMessage request);
+
+    /**
+     * Computes tax for a whole batch of {@code tax_calculation} events with one lookup and one update. Returns the
+     * number of transactions updated; database errors are thrown so the caller does not acknowledge the batch.
+     */
+    int computeTaxCalculations(List<TaxCalculationMessage> requests);
 }
@@ -0,0 +1,11 @@
+package com.example.tax.service;
+
+import com.example.tax.messaging.DeadLetterReplayResult;
+
+public interface DeadLetterService {
+
+    /**
+     * Re-drives up to {@code maxRecords} messages from the dead-letter topic of {@code topic} back onto {@code topic}.
+     */
+    DeadLetterReplayResult replay(String topic, int maxRecords);
+}
@@ -1,8 +1,11 @@
 package com.example.tax.service;
 
-import org.springframework.web.multipart.MultipartFile;
+import com.example.tax.ingestion.IngestionJob;
+import com.example.tax.ingestion.IngestionReport;
 
 public interface ExcelParserService {
 
-    void processExcel(MultipartFile file);
+    IngestionReport processExcel(IngestionJob job);
+
+    IngestionReport processText(IngestionJob job);
 }
@@ -0,0 +1,13 @@
+package com.example.tax.service;
+
+import com.example.tax.ingestion.IngestionJobStatus;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface IngestionJobService {
+
+    IngestionJobStatus submit(MultipartFile file);
+
+    IngestionJobStatus getJob(String jobId);
+
+    IngestionJobStatus cancel(String jobId);
+}
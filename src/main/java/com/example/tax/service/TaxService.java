@@ -1,14 +1,45 @@
 package com.example.tax.service;
 
 import com.core.lib.entity.TaxRecord;
+import com.example.tax.cache.TaxCacheMetrics;
+import com.example.tax.messaging.RequestReplyMetrics;
+import com.example.tax.model.TaxRecordPage;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
 public interface TaxService {
     TaxRecord calculateTax(String userName, double income);
 
+    /**
+     * Reads NDJSON {@code {"userName":..,"income":..}} requests and writes one NDJSON result per request, either the
+     * saved TaxRecord or an error line, chunk by chunk as they are persisted. Requests of a chunk that fails to save
+     * get an error line each; the other chunks are still saved.
+     */
+    void calculateTaxBatch(InputStream requests, OutputStream results) throws IOException;
+
     Optional<TaxRecord> getTaxRecord(String userName);
 
-    List<TaxRecord> getTaxRecords();
+    /**
+     * One keyset page of stored records in id order, starting after {@code afterId} (from the start if null).
+     */
+    TaxRecordPage getTaxRecords(Long afterId, Integer size);
+
+    /**
+     * Writes every record as NDJSON straight from a database cursor, in constant memory.
+     */
+    void streamTaxRecords(OutputStream results) throws IOException;
+
+    /**
+     * Recalculates one page of records through the tax_request/tax_response round trip and returns those that
+     * answered in time.
+     */
+    List<TaxRecord> recalculateTaxRecords(Long afterId, Integer size);
+
+    RequestReplyMetrics getRecalculationMetrics();
+
+    TaxCacheMetrics getCacheMetrics();
 }
@@ -0,0 +1,13 @@
+package com.example.tax.service;
+
+import com.example.tax.ingestion.ReplayResult;
+import com.example.tax.messaging.PublisherMetrics;
+
+import java.time.Instant;
+
+public interface TransactionService {
+
+    ReplayResult replayTaxCalculationEvents(Instant afterTxnDate, Long afterId, int maxRecords);
+
+    PublisherMetrics getPublisherMetrics();
+}
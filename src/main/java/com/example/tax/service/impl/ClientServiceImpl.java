@@ -6,12 +6,12 @@ import com.core.lib.entity.Country;
 import com.core.lib.exception.BusinessException;
 import com.core.lib.model.ClientContactDto;
 import com.core.lib.model.ClientDto;
+import com.example.tax.cache.CountryIndex;
+import com.example.tax.mapper.ClientMapper;
 import com.example.tax.repository.ClientRepository;
-import com.example.tax.repository.CountryRepository;
 import com.example.tax.service.ClientService;
 import jakarta.transaction.Transactional;
 import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -24,13 +24,13 @@ import java.util.stream.Collectors;
 public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
-    private final CountryRepository countryRepository;
-    private final ModelMapper modelMapper;
+    private final CountryIndex countryIndex;
+    private final ClientMapper clientMapper;
 
-    public ClientServiceImpl(ClientRepository clientRepository, CountryRepository countryRepository, ModelMapper modelMapper) {
+    public ClientServiceImpl(ClientRepository clientRepository, CountryIndex countryIndex, ClientMapper clientMapper) {
         this.clientRepository = clientRepository;
-        this.countryRepository = countryRepository;
-        this.modelMapper = modelMapper;
+        this.countryIndex = countryIndex;
+        this.clientMapper = clientMapper;
     }
 
     @Override
@@ -38,34 +38,29 @@ public class ClientServiceImpl implements ClientService {
     public ClientDto save(ClientDto clientDto) {
         log.info("Saving new client: {}", clientDto.getName());
         try {
-            Client client = modelMapper.map(clientDto, Client.class);
+            Client client = clientMapper.toClient(clientDto);
 
             String countryCode = clientDto.getCountry() != null ? clientDto.getCountry().getCountryCode() : null;
             // set country details
-            Country country = countryRepository .findByCountryCode(countryCode)
-                    .orElseGet(() -> {
-                        log.info("Country with code {} not found. Creating new country.", countryCode);
-                        Country newCountry = modelMapper.map(clientDto.getCountry(), Country.class);
-                        return countryRepository.save(newCountry);
-                    });
+            Country country = countryIndex.getOrCreate(countryCode,
+                    () -> clientMapper.toCountry(clientDto.getCountry()));
 
             client.setCountry(country);
 
             // set contact details
             if (clientDto.getContacts() != null) {
                 List<ClientContact> contacts = clientDto.getContacts().stream()
-                        .map(contactDTO -> {
-                            ClientContact contact = modelMapper.map(contactDTO, ClientContact.class);
-                            contact.setClient(client);
-                            return contact;
-                        })
+                        .map(contactDTO -> clientMapper.toContact(contactDTO, client))
                         .collect(Collectors.toList());
                 client.setContacts(contacts);
             }
             Client savedClient = clientRepository.save(client);
             log.info("Client saved successfully with  name: {}", savedClient.getName());
 
-            return modelMapper.map(savedClient, ClientDto.class);
+            return clientMapper.toDto(savedClient);
+        } catch (BusinessException be) {
+            log.error("BusinessException while saving client {}: {}", clientDto.getName(), be.getMessage());
+            throw be;
         } catch (Exception e) {
             log.error("Error occurred while saving client: {}", clientDto.getName(), e);
             throw new RuntimeException("Failed to save client: " + clientDto.getName(), e);
@@ -81,7 +76,7 @@ public class ClientServiceImpl implements ClientService {
         }
         Client client = clientRepository.findById(clientId)
                 .orElseThrow(() -> new BusinessException("400","Client not found with id " + clientId));
-        return modelMapper.map(client, ClientDto.class);
+        return clientMapper.toDto(client);
 
     }
 
@@ -94,7 +89,7 @@ public class ClientServiceImpl implements ClientService {
             Client client = clientRepository.findById(clientId)
                     .orElseThrow(() -> new RuntimeException("Client not found with id " + clientId));
 
-            updateClientFields(client,clientDto);
+            clientMapper.updateClient(client, clientDto);
 
             Map<Long, ClientContact> existingContacts = client.getContacts().stream()
                     .collect(Collectors.toMap(ClientContact::getContactId, c -> c));
@@ -108,17 +103,10 @@ public class ClientServiceImpl implements ClientService {
                         if (contact == null) {
                             throw new RuntimeException("Contact not found with id " + contactDto.getContactId());
                         }
-                        contact.setContactType(contactDto.getContactType());
-                        contact.setContactValue(contactDto.getContactValue());
-                        contact.setIsPrimary(contactDto.getIsPrimary());
+                        clientMapper.updateContact(contact, contactDto);
                         updatedContacts.add(contact);
                     } else {
-                        ClientContact newContact = new ClientContact();
-                        newContact.setContactType(contactDto.getContactType());
-                        newContact.setContactValue(contactDto.getContactValue());
-                        newContact.setIsPrimary(contactDto.getIsPrimary());
-                        newContact.setClient(client);
-                        updatedContacts.add(newContact);
+                        updatedContacts.add(clientMapper.toContact(contactDto, client));
                     }
                 }
             }
@@ -126,7 +114,7 @@ public class ClientServiceImpl implements ClientService {
             client.getContacts().addAll(updatedContacts);
 
             Client saved = clientRepository.save(client);
-            return modelMapper.map(saved, ClientDto.class);
+            return clientMapper.toDto(saved);
 
         } catch (BusinessException be) {
             log.error("BusinessException while updating client id={}: {}", clientId, be.getMessage());
@@ -137,22 +125,6 @@ public class ClientServiceImpl implements ClientService {
         }
     }
 
-    private void updateClientFields(Client client, ClientDto dto) {
-        client.setName(dto.getName());
-        client.setEmail(dto.getEmail());
-        client.setPhoneNumber(dto.getPhoneNumber());
-        client.setAddress(dto.getAddress());
-        client.setPanNumber(dto.getPanNumber());
-        client.setPassportNumber(dto.getPassportNumber());
-        client.setTaxResidencyCountry(dto.getTaxResidencyCountry());
-        client.setKycStatus(dto.getKycStatus());
-        client.setRiskProfile(dto.getRiskProfile());
-        client.setPreferredCurrency(dto.getPreferredCurrency());
-        client.setUpdatedBy(dto.getCreatedBy());
-    }
-
-
-
     @Override
     public void delete(Long clientId) {
         log.info("Deleting client id={}", clientId);
@@ -1,61 +1,123 @@
 package com.example.tax.service.impl;
 
 import com.core.lib.entity.Transaction;
-import com.core.lib.exception.BusinessException;
+import com.example.tax.config.IngestionProperties;
+import com.example.tax.engine.TaxEngine;
+import com.example.tax.messaging.TaxCalculationMessage;
 import com.example.tax.repository.TransactionRepository;
 import com.example.tax.service.ComputationService;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 @Log4j2
 public class ComputationServiceImpl implements ComputationService {
 
+    private final String bulkUpdateSql;
 
     private final TransactionRepository transactionRepository;
 
-    public ComputationServiceImpl(TransactionRepository transactionRepository) {
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TaxEngine taxEngine;
+
+    public ComputationServiceImpl(TransactionRepository transactionRepository, JdbcTemplate jdbcTemplate,
+                                  TaxEngine taxEngine, IngestionProperties ingestionProperties) {
         this.transactionRepository = transactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taxEngine = taxEngine;
+        // One statement for the whole batch: the arrays are zipped into rows and joined on transaction_id
+        this.bulkUpdateSql = "UPDATE " + ingestionProperties.getCopyTable() + " t SET tax_amount = v.tax_amount "
+                + "FROM unnest(?::text[], ?::float8[]) AS v(transaction_id, tax_amount) "
+                + "WHERE t.transaction_id = v.transaction_id";
     }
 
     @Override
-    public void computeTaxCalculation(Map<String, Object> request) {
-        String transactionId = (String) request.get("transaction_id");
-        try {
-            if (transactionId == null || transactionId.isBlank()) {
-                log.warn("Transaction ID is missing in request: {}", request);
-                return;
-            }
+    public void computeTaxCalculation(TaxCalculationMessage request) {
+        String transactionId = request.transactionId();
+        if (transactionId == null || transactionId.isBlank()) {
+            log.warn("Transaction ID is missing in request: {}", request);
+            return;
+        }
+
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId);
+        if (transaction == null) {
+            log.warn("No transaction found for ID: {}", transactionId);
+            return;
+        }
+
+        if (transaction.getAmount() == null) {
+            log.warn("Transaction {} has no amount, skipping tax calculation", transactionId);
+            return;
+        }
 
-            Transaction transaction = transactionRepository.findByTransactionId(transactionId);
-            if (transaction == null) {
-                log.warn("No transaction found for ID: {}", transactionId);
-                return;
+        double taxAmount = taxEngine.calculateTax(transaction.getAmount());
+        transaction.setTaxAmount(taxAmount);
+        transactionRepository.save(transaction);
+    }
+
+    @Override
+    public int computeTaxCalculations(List<TaxCalculationMessage> requests) {
+        Set<String> transactionIds = new LinkedHashSet<>();
+        for (TaxCalculationMessage request : requests) {
+            String transactionId = request.transactionId();
+            if (transactionId != null && !transactionId.isBlank()) {
+                transactionIds.add(transactionId);
+            } else {
+                log.warn("Transaction ID is missing in request: {}", request);
             }
+        }
+        if (transactionIds.isEmpty()) {
+            return 0;
+        }
 
+        List<Transaction> transactions = transactionRepository.findByTransactionIdIn(transactionIds);
+        String[] ids = new String[transactions.size()];
+        double[] amounts = new double[transactions.size()];
+        int count = 0;
+        for (Transaction transaction : transactions) {
             if (transaction.getAmount() == null) {
-                log.warn("Transaction {} has no amount, skipping tax calculation", transactionId);
-                return;
+                log.warn("Transaction {} has no amount, skipping tax calculation", transaction.getTransactionId());
+                continue;
             }
+            ids[count] = transaction.getTransactionId();
+            amounts[count] = transaction.getAmount();
+            count++;
+        }
+        if (transactions.size() < transactionIds.size()) {
+            log.warn("No transaction found for {} of {} IDs in batch", transactionIds.size() - transactions.size(),
+                    transactionIds.size());
+        }
+        if (count == 0) {
+            return 0;
+        }
 
-            double taxAmount = calculateTax(transaction.getAmount());
-            transaction.setTaxAmount(taxAmount);
-            transactionRepository.save(transaction);
-        } catch (BusinessException e) {
-            log.error("Business error while processing tax calculation for transaction {}: {}",
-                    transactionId, e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("Unexpected error during tax calculation for transaction {}: {}",
-                    transactionId, e.getMessage(), e);
+        double[] taxes = taxEngine.calculateTaxes(Arrays.copyOf(amounts, count));
+        Double[] boxedTaxes = new Double[count];
+        for (int i = 0; i < count; i++) {
+            boxedTaxes[i] = taxes[i];
         }
+        int rows = bulkUpdateTaxAmounts(Arrays.copyOf(ids, count), boxedTaxes);
+        log.debug("Updated tax for {} transactions from a batch of {} requests", rows, requests.size());
+        return rows;
     }
 
-    private double calculateTax(double income) {
-        if (income <= 250_000) return 0;
-        else if (income <= 500_000) return (income - 250_000) * 0.05;
-        else if (income <= 1_000_000) return (250_000 * 0.05) + (income - 500_000) * 0.2;
-        else return (250_000 * 0.05) + (500_000 * 0.2) + (income - 1_000_000) * 0.3;
+    private int bulkUpdateTaxAmounts(String[] ids, Double[] taxes) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(bulkUpdateSql);
+            Array idArray = connection.createArrayOf("text", ids);
+            Array taxArray = connection.createArrayOf("float8", taxes);
+            ps.setArray(1, idArray);
+            ps.setArray(2, taxArray);
+            return ps;
+        });
     }
 }
@@ -0,0 +1,163 @@
+package com.example.tax.service.impl;
+
+import com.core.lib.exception.BusinessException;
+import com.example.tax.config.DeadLetterProperties;
+import com.example.tax.config.KafkaConfig;
+import com.example.tax.ingestion.TransactionEventPublisher;
+import com.example.tax.messaging.DeadLetterReplayResult;
+import com.example.tax.messaging.KafkaBulkPublisher;
+import com.example.tax.messaging.PublishResult;
+import com.example.tax.messaging.TaxRequestReplyClient;
+import com.example.tax.service.DeadLetterService;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@Log4j2
+public class DeadLetterServiceImpl implements DeadLetterService {
+
+    // Retry bookkeeping headers; a re-driven message starts over with a fresh set of attempts
+    private static final String DLT_HEADER_PREFIX = "kafka_dlt-";
+    private static final String RETRY_HEADER_PREFIX = "retry_topic-";
+
+    private static final Map<String, String> DEAD_LETTER_TOPICS = Map.of(
+            TransactionEventPublisher.TAX_CALCULATION_TOPIC,
+            KafkaConfig.TAX_CALCULATION_FAILED_TOPIC + KafkaConfig.DLT_SUFFIX,
+            TaxRequestReplyClient.REQUEST_TOPIC,
+            TaxRequestReplyClient.REQUEST_TOPIC + KafkaConfig.DLT_SUFFIX);
+
+    private final ConsumerFactory<Object, Object> consumerFactory;
+    private final KafkaBulkPublisher bulkPublisher;
+    private final DeadLetterProperties properties;
+    // Two replays of the same group would re-drive the same messages twice
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    public DeadLetterServiceImpl(ConsumerFactory<Object, Object> consumerFactory, KafkaBulkPublisher bulkPublisher,
+                                 DeadLetterProperties properties) {
+        this.consumerFactory = consumerFactory;
+        this.bulkPublisher = bulkPublisher;
+        this.properties = properties;
+    }
+
+    @Override
+    public DeadLetterReplayResult replay(String topic, int maxRecords) {
+        String deadLetterTopic = DEAD_LETTER_TOPICS.get(topic);
+        if (deadLetterTopic == null) {
+            throw new BusinessException("400", "No dead-letter topic for " + topic + ", expected one of "
+                    + DEAD_LETTER_TOPICS.keySet());
+        }
+        if (!replayLock.tryLock()) {
+            throw new BusinessException("409", "A dead-letter replay is already running");
+        }
+        try {
+            return replay(topic, deadLetterTopic, maxRecords);
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    private DeadLetterReplayResult replay(String topic, String deadLetterTopic, int maxRecords) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Values are re-driven exactly as dead-lettered, including the raw bytes of ones that could not be read
+        overrides.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        try (Consumer<Object, Object> consumer = consumerFactory.createConsumer(properties.getReplayGroup(), null,
+                "-dlt-replay", overrides)) {
+            List<TopicPartition> partitions = assign(consumer, deadLetterTopic);
+
+            KafkaBulkPublisher.Batch batch = bulkPublisher.begin();
+            Map<TopicPartition, OffsetAndMetadata> consumed = new HashMap<>();
+            long read = 0;
+            long skipped = 0;
+
+            while (read < maxRecords) {
+                ConsumerRecords<Object, Object> records = consumer.poll(properties.getPollTimeout());
+                if (records.isEmpty()) break;
+                for (ConsumerRecord<Object, Object> record : records) {
+                    if (read >= maxRecords) break;
+                    read++;
+                    consumed.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                    if (record.value() == null) {
+                        skipped++;
+                        continue;
+                    }
+                    batch.send(redrive(topic, record));
+                }
+            }
+
+            PublishResult published = batch.await();
+            boolean committed = published.isComplete() && !consumed.isEmpty();
+            if (committed) {
+                consumer.commitSync(consumed);
+            } else if (!published.isComplete()) {
+                log.warn("Not committing replay of {}: {} messages were not acknowledged", deadLetterTopic,
+                        published.failed() + published.unacknowledged());
+            }
+
+            log.info("Replayed {} of {} dead-lettered messages from {} onto {} ({} partitions)",
+                    published.succeeded(), read, deadLetterTopic, topic, partitions.size());
+            return new DeadLetterReplayResult(topic, deadLetterTopic, read, skipped, published.succeeded(),
+                    published.failed() + published.unacknowledged(), committed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("503", "Dead-letter replay of " + deadLetterTopic + " interrupted");
+        }
+    }
+
+    // Manual assignment from the group's committed offsets: no rebalance to wait for before the first poll
+    private static List<TopicPartition> assign(Consumer<Object, Object> consumer, String deadLetterTopic) {
+        List<PartitionInfo> infos = consumer.partitionsFor(deadLetterTopic);
+        if (infos == null || infos.isEmpty()) {
+            throw new BusinessException("404", "Dead-letter topic " + deadLetterTopic + " does not exist");
+        }
+        List<TopicPartition> partitions = infos.stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+        consumer.assign(partitions);
+
+        Set<TopicPartition> partitionSet = new HashSet<>(partitions);
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(partitionSet);
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset != null) {
+                consumer.seek(partition, offset);
+            } else {
+                consumer.seekToBeginning(List.of(partition));
+            }
+        }
+        return partitions;
+    }
+
+    private static ProducerRecord<String, Object> redrive(String topic, ConsumerRecord<Object, Object> record) {
+        ProducerRecord<String, Object> redriven = new ProducerRecord<>(topic,
+                record.key() != null ? record.key().toString() : null, record.value());
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(DLT_HEADER_PREFIX) && !header.key().startsWith(RETRY_HEADER_PREFIX)) {
+                redriven.headers().add(header);
+            }
+        }
+        return redriven;
+    }
+}
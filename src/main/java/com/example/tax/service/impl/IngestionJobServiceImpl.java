@@ -0,0 +1,165 @@
+package com.example.tax.service.impl;
+
+import com.core.lib.exception.BusinessException;
+import com.example.tax.config.IngestionProperties;
+import com.example.tax.ingestion.IngestionFormat;
+import com.example.tax.ingestion.IngestionJob;
+import com.example.tax.ingestion.IngestionJobStatus;
+import com.example.tax.ingestion.IngestionReport;
+import com.example.tax.service.ExcelParserService;
+import com.example.tax.service.IngestionJobService;
+import com.example.tax.utility.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Log4j2
+public class IngestionJobServiceImpl implements IngestionJobService {
+
+    private static final int HASH_BUFFER_BYTES = 1024 * 1024;
+
+    private final ExcelParserService excelParserService;
+    private final IngestionProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+
+    public IngestionJobServiceImpl(ExcelParserService excelParserService, IngestionProperties properties,
+                                   WorkerThreads workerThreads) {
+        this.excelParserService = excelParserService;
+        this.properties = properties;
+
+        // bounded queue + AbortPolicy: a saturated executor rejects new uploads instead of queueing them forever
+        this.executor = new ThreadPoolExecutor(properties.getJobThreads(), properties.getJobThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getJobQueueCapacity()),
+                workerThreads.named("ingest-job"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public IngestionJobStatus submit(MultipartFile file) {
+        evictExpiredJobs();
+
+        String jobId = UUID.randomUUID().toString();
+        Path spoolFile = spool(file, jobId);
+        IngestionJob job = new IngestionJob(jobId, file.getOriginalFilename(), spoolFile);
+
+        jobs.put(jobId, job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(jobId);
+            deleteSpoolFile(spoolFile);
+            log.warn("Rejected upload {}: ingestion executor is saturated", file.getOriginalFilename());
+            throw new BusinessException("503", "Too many uploads in progress, retry later");
+        }
+
+        log.info("Queued ingestion job {} for file: {}", jobId, file.getOriginalFilename());
+        return job.snapshot();
+    }
+
+    @Override
+    public IngestionJobStatus getJob(String jobId) {
+        return findJob(jobId).snapshot();
+    }
+
+    @Override
+    public IngestionJobStatus cancel(String jobId) {
+        IngestionJob job = findJob(jobId);
+        if (job.cancel()) {
+            log.info("Cancelled ingestion job {}", jobId);
+        } else {
+            log.info("Ingestion job {} already finished with status {}", jobId, job.getStatus());
+        }
+        return job.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(IngestionJob job) {
+        try {
+            if (job.isCancelled()) {
+                return;
+            }
+            job.started();
+            job.setFileHash(contentHash(job.getSpoolFile()));
+            IngestionReport report = job.getFormat() == IngestionFormat.XLSX
+                    ? excelParserService.processExcel(job)
+                    : excelParserService.processText(job);
+            job.completed(report);
+        } catch (Exception e) {
+            log.error("Ingestion job {} failed: {}", job.getJobId(), e.getMessage());
+            job.failed(e.getMessage());
+        } finally {
+            deleteSpoolFile(job.getSpoolFile());
+        }
+    }
+
+    // Identifies the upload by content, so a re-upload under another name still resumes from its checkpoints
+    private static String contentHash(Path file) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_BYTES);
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private IngestionJob findJob(String jobId) {
+        IngestionJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new BusinessException("404", "Ingestion job not found with id " + jobId);
+        }
+        return job;
+    }
+
+    private Path spool(MultipartFile file, String jobId) {
+        try {
+            Path spoolFile = Files.createTempFile(Path.of(properties.getSpoolDirectory()), "upload-" + jobId + "-", ".tmp");
+            file.transferTo(spoolFile);
+            return spoolFile;
+        } catch (IOException e) {
+            log.error("Failed to spool upload {}: {}", file.getOriginalFilename(), e.getMessage(), e);
+            throw new BusinessException("500", "Failed to store upload: " + e.getMessage());
+        }
+    }
+
+    private void deleteSpoolFile(Path spoolFile) {
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete spool file {}: {}", spoolFile, e.getMessage());
+        }
+    }
+
+    private void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(properties.getJobRetention());
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+}
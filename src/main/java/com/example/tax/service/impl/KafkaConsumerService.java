@@ -1,13 +1,30 @@
 package com.example.tax.service.impl;
 
-import com.core.lib.exception.BusinessException;
+import com.example.tax.config.KafkaConfig;
+import com.example.tax.engine.TaxEngine;
+import com.example.tax.messaging.KeyedLaneExecutor;
+import com.example.tax.messaging.TaxCalculationMessage;
+import com.example.tax.messaging.TaxRequestMessage;
+import com.example.tax.messaging.TaxResponseMessage;
 import com.example.tax.service.ComputationService;
 import lombok.extern.log4j.Log4j2;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.core.log.LogAccessor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,43 +33,84 @@ import java.util.Map;
 @Log4j2
 public class KafkaConsumerService {
 
+    private static final LogAccessor DESERIALIZATION_LOG = new LogAccessor(KafkaConsumerService.class);
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
     private final ComputationService computationService;
 
-    public KafkaConsumerService(KafkaTemplate<String, Object> kafkaTemplate, ComputationService computationService) {
+    private final TaxEngine taxEngine;
+
+    private final KeyedLaneExecutor laneExecutor;
+
+    // Hands a failed tax_calculation record to the retry chain, with the failure recorded in kafka_dlt-* headers
+    private final DeadLetterPublishingRecoverer retryForwarder;
+
+    public KafkaConsumerService(KafkaTemplate<String, Object> kafkaTemplate, ComputationService computationService,
+                                TaxEngine taxEngine, KeyedLaneExecutor laneExecutor) {
         this.kafkaTemplate = kafkaTemplate;
         this.computationService = computationService;
+        this.taxEngine = taxEngine;
+        this.laneExecutor = laneExecutor;
+        // partition -1: keep the record's key and let the partitioner place it
+        this.retryForwarder = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(KafkaConfig.TAX_CALCULATION_FAILED_TOPIC, -1));
     }
 
-    @KafkaListener(topics = "tax_calculation", groupId = "tax_calculation_group")
+    // tax.calculation.listener-mode picks which of the two tax_calculation listeners runs: record or batch
+    @KafkaListener(id = "taxCalculationRecordListener", topics = "tax_calculation", groupId = "tax_calculation_group",
+            concurrency = "${tax.calculation.concurrency:1}",
+            autoStartup = "#{'${tax.calculation.listener-mode:batch}' == 'record'}")
     public void listenTaxCalculation(ConsumerRecord<String, Object> record) {
-        try {
-            Object value = record.value();
-            if (value instanceof Map<?, ?> mapValue) {
-                Map<String, Object> request = castToStringObjectMap(mapValue);
-                computationService.computeTaxCalculation(request);
-            } else {
-                log.warn("Unexpected message type received: {}, message={}",
-                        value != null ? value.getClass().getName() : "null", value);
-            }
-        } catch (BusinessException e) {
-            log.error("Business error while processing Kafka message at offset {}: {}", record.offset(), e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("Unexpected error while processing Kafka message at offset {}: {}", record.offset(), e.getMessage(), e);
+        processCalculation(record);
+    }
+
+    /**
+     * Receives a whole poll and splits it into lanes by key (account number), which run in parallel; records of one
+     * account stay in one lane, in order. Each lane looks its transactions up in one query and writes the taxes in one
+     * update. If a lane fails, its records are processed one by one, and only the ones that fail again are forwarded
+     * to the retry chain. Either way the poll is acknowledged once every lane is done and the partition moves on.
+     */
+    @KafkaListener(id = "taxCalculationBatchListener", topics = "tax_calculation", groupId = "tax_calculation_group",
+            containerFactory = KafkaConfig.BATCH_LISTENER_FACTORY,
+            concurrency = "${tax.calculation.concurrency:1}",
+            autoStartup = "#{'${tax.calculation.listener-mode:batch}' == 'batch'}")
+    public void listenTaxCalculationBatch(List<ConsumerRecord<String, Object>> records) {
+        laneExecutor.process(records, KafkaConsumerService::laneKey, this::processCalculationBatch);
+    }
+
+    /**
+     * Retries of tax_calculation records that failed on the main listeners. Each attempt waits on its own delay topic
+     * and the last failure lands on {@code tax_calculation-failed-dlt}, per {@link KafkaConfig#taxRetryTopics}.
+     */
+    @KafkaListener(id = "taxCalculationRetryListener", topics = KafkaConfig.TAX_CALCULATION_FAILED_TOPIC,
+            groupId = "tax_calculation_group")
+    public void retryTaxCalculation(ConsumerRecord<String, Object> record) {
+        TaxCalculationMessage request = toCalculationMessage(record.value());
+        if (request != null) {
+            computationService.computeTaxCalculation(request);
+        } else {
+            log.warn("Dropping unexpected message type from {}: {}", record.topic(),
+                    record.value() != null ? record.value().getClass().getName() : "null");
         }
     }
 
+    /**
+     * Failed requests are retried on {@code tax_request-retry-*} and dead-lettered to {@code tax_request-dlt}, without
+     * holding up the requests behind them; see {@link KafkaConfig#taxRetryTopics}.
+     */
     @KafkaListener(topics = "tax_request", groupId = "tax_processor_group")
     public void listen(ConsumerRecord<String, Object> record) {
         Object value = record.value();
         log.info("Received message: {}", value);
-        if (value instanceof Map<?, ?> mapValue) {
-            processRecord(castToStringObjectMap(mapValue));
+        if (value instanceof TaxRequestMessage request) {
+            processRequest(request, record.headers());
+        } else if (value instanceof Map<?, ?> mapValue) {
+            processRecord(castToStringObjectMap(mapValue), record.headers());
         } else if (value instanceof List<?> listValue) {
             listValue.forEach(item -> {
                 if (item instanceof Map<?, ?> mapItem) {
-                    processRecord(castToStringObjectMap(mapItem));
+                    processRecord(castToStringObjectMap(mapItem), record.headers());
                 } else {
                     log.warn("Unexpected list element type: {}", item.getClass());
                 }
@@ -62,12 +120,105 @@ public class KafkaConsumerService {
         }
     }
 
+    // Dead-letter handler of both retry chains, registered by KafkaConfig.taxRetryTopics
+    public void onDeadLetter(ConsumerRecord<String, Object> record) {
+        log.error("Dead-lettered message from {} on {} at offset {}: {}",
+                headerText(record.headers(), KafkaHeaders.DLT_ORIGINAL_TOPIC), record.topic(), record.offset(),
+                headerText(record.headers(), KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+    }
+
+    private void processCalculationBatch(List<ConsumerRecord<String, Object>> records) {
+        List<ConsumerRecord<String, Object>> readable = new ArrayList<>(records.size());
+        List<TaxCalculationMessage> requests = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Object> record : records) {
+            DeserializationException unreadable = deserializationFailure(record);
+            if (unreadable != null) {
+                log.warn("Unreadable tax calculation message at offset {}, forwarding to {}: {}", record.offset(),
+                        KafkaConfig.TAX_CALCULATION_FAILED_TOPIC, unreadable.getMessage());
+                retryForwarder.accept(record, unreadable);
+                continue;
+            }
+            readable.add(record);
+            TaxCalculationMessage request = toCalculationMessage(record.value());
+            if (request != null) {
+                requests.add(request);
+            } else {
+                log.warn("Unexpected message type received at offset {}: {}", record.offset(),
+                        record.value() != null ? record.value().getClass().getName() : "null");
+            }
+        }
+        try {
+            int updated = computationService.computeTaxCalculations(requests);
+            log.info("Processed batch of {} tax calculation messages, {} transactions updated", records.size(), updated);
+        } catch (Exception e) {
+            log.warn("Batch of {} tax calculation messages failed, processing them one by one: {}", readable.size(),
+                    e.getMessage());
+            readable.forEach(this::processCalculation);
+        }
+    }
+
+    /**
+     * Batch listeners get a record whose value could not be deserialized with a null value and the failure in a
+     * header; record listeners never see such a record, the container hands it to the error handler instead.
+     */
+    private static DeserializationException deserializationFailure(ConsumerRecord<String, Object> record) {
+        return record.value() == null
+                ? SerializationUtils.getExceptionFromHeader(record,
+                        SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, DESERIALIZATION_LOG)
+                : null;
+    }
+
+    // Account number; events from older producers carry no key and fall back to the transaction id
+    private static String laneKey(ConsumerRecord<String, Object> record) {
+        if (record.key() != null) return record.key();
+        return record.value() instanceof TaxCalculationMessage message ? message.transactionId() : null;
+    }
+
+    // Record-at-a-time path; a failing record goes to the retry chain instead of blocking its partition
+    private void processCalculation(ConsumerRecord<String, Object> record) {
+        Object value = record.value();
+        TaxCalculationMessage request = toCalculationMessage(value);
+        if (request == null) {
+            log.warn("Unexpected message type received: {}, message={}",
+                    value != null ? value.getClass().getName() : "null", value);
+            return;
+        }
+        try {
+            computationService.computeTaxCalculation(request);
+        } catch (Exception e) {
+            log.warn("Tax calculation for {} at offset {} failed, forwarding to {}: {}", request.transactionId(),
+                    record.offset(), KafkaConfig.TAX_CALCULATION_FAILED_TOPIC, e.getMessage());
+            retryForwarder.accept(record, e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private Map<String, Object> castToStringObjectMap(Map<?, ?> map) {
         return (Map<String, Object>) map;
     }
 
-    private void processRecord(Map<String, Object> recordMap) {
+    // Typed message, or the JSON map still sent by older producers
+    private TaxCalculationMessage toCalculationMessage(Object value) {
+        if (value instanceof TaxCalculationMessage message) return message;
+        if (value instanceof Map<?, ?> mapValue) return TaxCalculationMessage.fromMap(mapValue);
+        return null;
+    }
+
+    private void processRequest(TaxRequestMessage request, Headers requestHeaders) {
+        if (request.userName() == null) {
+            log.warn("Skipping request with missing userName: {}", request);
+            return;
+        }
+
+        double tax = taxEngine.calculateTax(request.income());
+        double netIncome = request.income() - tax;
+        log.info("Processed TaxRecord for '{}': Tax={}, NetIncome={}", request.userName(), tax, netIncome);
+
+        sendReply(requestHeaders, new TaxResponseMessage(request.id(), request.userName(), request.income(), tax,
+                netIncome));
+    }
+
+    private void processRecord(Map<String, Object> recordMap, Headers requestHeaders) {
         Map<String, Object> modifiableMap = new HashMap<>(recordMap);
 
         String userName = (String) modifiableMap.get("userName");
@@ -77,7 +228,7 @@ public class KafkaConsumerService {
         }
 
         double income = parseDouble(modifiableMap.get("income"));
-        double tax = calculateTax(income);
+        double tax = taxEngine.calculateTax(income);
         double netIncome = income - tax;
 
         modifiableMap.put("tax", tax);
@@ -85,7 +236,31 @@ public class KafkaConsumerService {
 
         log.info("Processed TaxRecord for '{}': Tax={}, NetIncome={}", userName, tax, netIncome);
 
-        kafkaTemplate.send("tax_response", modifiableMap);
+        sendReply(requestHeaders, modifiableMap);
+    }
+
+    // Replies go to the topic and partition the requester named, with its correlation id echoed back
+    private void sendReply(Headers requestHeaders, Object response) {
+        Header replyTopic = requestHeaders.lastHeader(KafkaHeaders.REPLY_TOPIC);
+        if (replyTopic == null) {
+            kafkaTemplate.send("tax_response", response);
+            return;
+        }
+
+        Header replyPartition = requestHeaders.lastHeader(KafkaHeaders.REPLY_PARTITION);
+        Integer partition = replyPartition != null ? ByteBuffer.wrap(replyPartition.value()).getInt() : null;
+        ProducerRecord<String, Object> reply = new ProducerRecord<>(
+                new String(replyTopic.value(), StandardCharsets.UTF_8), partition, null, response);
+        Header correlation = requestHeaders.lastHeader(KafkaHeaders.CORRELATION_ID);
+        if (correlation != null) {
+            reply.headers().add(KafkaHeaders.CORRELATION_ID, correlation.value());
+        }
+        kafkaTemplate.send(reply);
+    }
+
+    private static String headerText(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
     }
 
     private double parseDouble(Object value) {
@@ -96,11 +271,4 @@ public class KafkaConsumerService {
             return 0;
         }
     }
-
-    public double calculateTax(double income) {
-        if (income <= 250_000) return 0;
-        else if (income <= 500_000) return (income - 250_000) * 0.05;
-        else if (income <= 1_000_000) return (250_000 * 0.05) + (income - 500_000) * 0.2;
-        else return (250_000 * 0.05) + (500_000 * 0.2) + (income - 1_000_000) * 0.3;
-    }
 }
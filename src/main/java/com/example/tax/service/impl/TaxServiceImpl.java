@@ -2,21 +2,46 @@ package com.example.tax.service.impl;
 
 import com.core.lib.entity.TaxRecord;
 import com.core.lib.exception.BusinessException;
-import com.core.lib.util.RedisCacheProvider;
+import com.example.tax.cache.TaxCacheMetrics;
+import com.example.tax.cache.TaxRecordCache;
+import com.example.tax.config.TaxBatchProperties;
+import com.example.tax.config.TaxListProperties;
+import com.example.tax.engine.TaxEngine;
+import com.example.tax.messaging.RequestReplyMetrics;
+import com.example.tax.messaging.TaxRequestMessage;
+import com.example.tax.messaging.TaxRequestReplyClient;
+import com.example.tax.messaging.TaxResponseMessage;
+import com.example.tax.model.TaxBatchError;
+import com.example.tax.model.TaxCalculationRequest;
+import com.example.tax.model.TaxRecordPage;
 import com.example.tax.repository.TaxRecordRepository;
 import com.example.tax.service.TaxService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -26,16 +51,31 @@ public class TaxServiceImpl implements TaxService {
     private TaxRecordRepository taxRecordRepository;
 
     @Autowired
-    private RedisCacheProvider redisCacheProvider;
+    private TaxRecordCache taxRecordCache;
 
     @Autowired
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private TaxRequestReplyClient taxRequestReplyClient;
 
     @Autowired
-    private KafkaConsumerService kafkaConsumerService;
+    private TaxEngine taxEngine;
 
-    // Map to track pending async tax calculations
-    private final Map<Long, CompletableFuture<TaxRecord>> pendingRecords = new ConcurrentHashMap<>();
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaxBatchProperties taxBatchProperties;
+
+    @Autowired
+    private TaxListProperties taxListProperties;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     // Calculate tax synchronously for a single user and save
     @Override
@@ -46,7 +86,7 @@ public class TaxServiceImpl implements TaxService {
         }
         log.info("Starting tax calculation for user: {}, income: {}", userName, income);
 
-        double tax = kafkaConsumerService.calculateTax(income);
+        double tax = taxEngine.calculateTax(income);
         double netIncome = income - tax;
 
         TaxRecord record = TaxRecord.builder()
@@ -59,7 +99,7 @@ public class TaxServiceImpl implements TaxService {
         TaxRecord savedRecord = taxRecordRepository.save(record);
         log.info("Persisted TaxRecord in DB for user={}", savedRecord.getUserName());
 
-        redisCacheProvider.addData("tax", savedRecord.getUserName(), savedRecord);
+        taxRecordCache.put(savedRecord);
 
         log.info("Cached TaxRecord for user={}", savedRecord.getUserName());
         return savedRecord;
@@ -68,89 +108,241 @@ public class TaxServiceImpl implements TaxService {
     @Override
     public Optional<TaxRecord> getTaxRecord(String userName) {
         log.info("Fetching TaxRecord for user={}", userName);
-        Optional<TaxRecord> cached = redisCacheProvider.getData("tax", userName, TaxRecord.class);
-        if (cached.isPresent()) {
-            log.info("Cache hit for user={}", userName);
-            return cached;
+        // near cache, Redis, then one DB query however many requests miss on this user at once
+        Optional<TaxRecord> record = taxRecordCache.getOrLoad(userName, taxRecordRepository::findByUserNameIgnoreCase);
+        if (record.isEmpty()) {
+            log.warn("No TaxRecord found for user={}", userName);
         }
+        return record;
+    }
 
-        Optional<TaxRecord> dbRecord = taxRecordRepository.findByUserNameIgnoreCase(userName);
+    @Override
+    public void calculateTaxBatch(InputStream requests, OutputStream results) throws IOException {
+        long start = System.nanoTime();
+        int chunkSize = taxBatchProperties.getChunkSize();
+        List<TaxCalculationRequest> chunk = new ArrayList<>(chunkSize);
+        // request line of each chunk entry, for the error lines of a chunk that fails to save
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        long line = 0;
+        long saved = 0;
+        long failed = 0;
 
-        if (dbRecord.isPresent()) {
-            log.info("Found TaxRecord in DB for user={}", userName);
-            redisCacheProvider.addData("tax", userName, dbRecord.get());
-            log.info("Cached DB TaxRecord for user={}", userName);
-        } else {
-            log.warn("No TaxRecord found for user={} in cache or DB", userName);
-        }
+        try (MappingIterator<TaxCalculationRequest> iterator =
+                     objectMapper.readerFor(TaxCalculationRequest.class).readValues(requests);
+             JsonGenerator out = objectMapper.getFactory().createGenerator(results)) {
+            out.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            out.setRootValueSeparator(null);
 
-        return dbRecord;
+            while (true) {
+                TaxCalculationRequest request;
+                try {
+                    if (!iterator.hasNextValue()) break;
+                    request = iterator.nextValue();
+                    line++;
+                } catch (JsonMappingException e) {
+                    // well-formed JSON that does not bind (e.g. a non-numeric income): the iterator skips past it
+                    line++;
+                    failed++;
+                    writeLine(out, new TaxBatchError(line, "Invalid request: " + e.getOriginalMessage()));
+                    continue;
+                } catch (IOException e) {
+                    // malformed JSON: the parser cannot resynchronise, so the rest of the stream is dropped
+                    failed++;
+                    writeLine(out, new TaxBatchError(line + 1, "Malformed request: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                if (request == null || StringUtils.isBlank(request.userName()) || request.income() == null) {
+                    failed++;
+                    writeLine(out, new TaxBatchError(line, "userName and income are required"));
+                    continue;
+                }
+                chunk.add(request);
+                chunkLines.add(line);
+                if (chunk.size() >= chunkSize) {
+                    int chunkSaved = processChunk(chunk, chunkLines, out);
+                    saved += chunkSaved;
+                    failed += chunk.size() - chunkSaved;
+                    chunk.clear();
+                    chunkLines.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                int chunkSaved = processChunk(chunk, chunkLines, out);
+                saved += chunkSaved;
+                failed += chunk.size() - chunkSaved;
+            }
+        }
+        log.info("Batch tax calculation saved {} records, rejected {} in {} ms", saved, failed,
+                (System.nanoTime() - start) / 1_000_000);
     }
 
-    // Get all records and process via Kafka asynchronously
-    @Override
-    public List<TaxRecord> getTaxRecords() {
-        log.info("Fetching TaxRecord for all users");
-        List<TaxRecord> records = taxRecordRepository.findAll();
-        List<CompletableFuture<TaxRecord>> futures = new ArrayList<>();
+    /**
+     * Computes, inserts (one transaction per chunk), caches and streams back one chunk; returns how many were saved.
+     * Earlier chunks are committed and already streamed, so a chunk whose insert fails is rolled back and answered
+     * with an error line per request, and the batch goes on with the next chunk.
+     */
+    private int processChunk(List<TaxCalculationRequest> chunk, List<Long> lines, JsonGenerator out)
+            throws IOException {
+        double[] incomes = new double[chunk.size()];
+        for (int i = 0; i < incomes.length; i++) {
+            incomes[i] = chunk.get(i).income();
+        }
+        double[] taxes = taxEngine.calculateTaxes(incomes);
+
+        List<Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> insertTaxRecords(chunk, incomes, taxes));
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Failed to save batch chunk of {} records, lines {}-{}", chunk.size(), lines.get(0),
+                    lines.get(lines.size() - 1), e);
+            for (Long line : lines) {
+                writeLine(out, new TaxBatchError(line, "Not saved: the database insert of this chunk failed"));
+            }
+            out.flush();
+            return 0;
+        }
+        List<TaxRecord> records = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            records.add(TaxRecord.builder()
+                    .id(ids.get(i))
+                    .userName(chunk.get(i).userName())
+                    .income(incomes[i])
+                    .taxAmount(taxes[i])
+                    .netIncome(incomes[i] - taxes[i])
+                    .build());
+        }
 
+        taxRecordCache.putAll(records);
         for (TaxRecord record : records) {
-            CompletableFuture<TaxRecord> future = new CompletableFuture<>();
-            pendingRecords.put(record.getId(), future);
-            futures.add(future);
-
-            Map<String, Object> request = Map.of(
-                    "id", record.getId(),
-                    "userName", record.getUserName(),
-                    "income", record.getIncome()
-            );
-
-            kafkaTemplate.send("tax_request", request);
-            log.info("Sent tax request to Kafka for user: {}", record.getUserName());
+            writeLine(out, record);
         }
+        out.flush();
+        return records.size();
+    }
+
+    private List<Long> insertTaxRecords(List<TaxCalculationRequest> chunk, double[] incomes, double[] taxes) {
+        String sql = "INSERT INTO " + taxBatchProperties.getTable()
+                + " (user_name, income, tax_amount, net_income) VALUES (?, ?, ?, ?)";
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setString(1, chunk.get(i).userName());
+                        ps.setDouble(2, incomes[i]);
+                        ps.setDouble(3, taxes[i]);
+                        ps.setDouble(4, incomes[i] - taxes[i]);
+                    }
 
-        // Wait for async responses with timeout
-        return futures.stream()
-                .map(f -> {
-                    try {
-                        return f.get(5, TimeUnit.SECONDS);
-                    } catch (Exception e) {
-                        log.warn("Failed to get response for a tax record", e);
-                        return null;
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
                     }
-                })
+                }, keyHolder);
 
-                .filter(Objects::nonNull)
+        // generated keys come back in statement order
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).longValue())
                 .toList();
     }
 
-    // Kafka listener for tax responses
-    @KafkaListener(topics = "tax_response", groupId = "tax_api_group")
-    public void listenResponse(ConsumerRecord<String, Object> record) {
-        Object value = record.value();
-        if (!(value instanceof Map<?, ?> mapValue)) return;
-
-        Map<String, Object> response = (Map<String, Object>) mapValue;
-        Long id = ((Number) response.get("id")).longValue();
-
-        CompletableFuture<TaxRecord> future = pendingRecords.remove(id);
-        if (future != null) {
-            TaxRecord updated = TaxRecord.builder()
-                    .id(id)
-                    .userName((String) response.get("userName"))
-                    .income(((Number) response.get("income")).doubleValue())
-                    .taxAmount(((Number) response.get("tax")).doubleValue())
-                    .netIncome(((Number) response.get("netIncome")).doubleValue())
-                    .build();
-
-            // Complete the future so that getTaxRecords can return it
-            future.complete(updated);
-
-            // Update DB and cache to persist async calculation
-            taxRecordRepository.save(updated);
-            redisCacheProvider.addData("tax", updated.getUserName(), updated);
-
-            log.info("Updated TaxRecord from Kafka response: {}", updated);
+    private static void writeLine(JsonGenerator out, Object value) throws IOException {
+        out.writeObject(value);
+        out.writeRaw('\n');
+    }
+
+    @Override
+    public TaxRecordPage getTaxRecords(Long afterId, Integer size) {
+        int pageSize = pageSize(size);
+        List<TaxRecord> records = taxRecordRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId != null ? afterId : 0L, Limit.of(pageSize));
+        Long nextAfterId = records.size() == pageSize ? records.get(records.size() - 1).getId() : null;
+        log.info("Fetched {} TaxRecords after id={}", records.size(), afterId);
+        return new TaxRecordPage(records, nextAfterId);
+    }
+
+    @Override
+    public void streamTaxRecords(OutputStream results) throws IOException {
+        long start = System.nanoTime();
+        long[] count = {0};
+        try (JsonGenerator out = objectMapper.getFactory().createGenerator(results)) {
+            out.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            out.setRootValueSeparator(null);
+
+            // the cursor only stays open inside a transaction; detaching keeps the persistence context empty
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TaxRecord> records = taxRecordRepository.streamAllByOrderByIdAsc()) {
+                    records.forEach(record -> {
+                        try {
+                            writeLine(out, record);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        entityManager.detach(record);
+                        count[0]++;
+                    });
+                }
+            });
+            out.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Streamed {} TaxRecords in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Recalculates one page of records via Kafka request-reply
+    @Override
+    public List<TaxRecord> recalculateTaxRecords(Long afterId, Integer size) {
+        List<TaxRecord> records = getTaxRecords(afterId, size).records();
+        log.info("Recalculating {} TaxRecords after id={}", records.size(), afterId);
+
+        List<TaxRequestMessage> requests = new ArrayList<>(records.size());
+        for (TaxRecord record : records) {
+            requests.add(new TaxRequestMessage(record.getId(), record.getUserName(), record.getIncome()));
+        }
+
+        // One deadline for the whole page rather than a full timeout per reply
+        List<TaxResponseMessage> responses = taxRequestReplyClient.scatterGather(requests,
+                taxListProperties.getRecalculationTimeout());
+
+        List<TaxRecord> updated = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            TaxResponseMessage response = responses.get(i);
+            if (response == null) {
+                log.warn("No tax response for user={} before the deadline", records.get(i).getUserName());
+                continue;
+            }
+            updated.add(TaxRecord.builder()
+                    .id(records.get(i).getId())
+                    .userName(response.userName())
+                    .income(response.income())
+                    .taxAmount(response.tax())
+                    .netIncome(response.netIncome())
+                    .build());
+        }
+
+        // Update DB and cache to persist async calculation
+        taxRecordRepository.saveAll(updated);
+        taxRecordCache.putAll(updated);
+        log.info("Updated {} of {} TaxRecords from Kafka responses", updated.size(), records.size());
+        return updated;
+    }
+
+    @Override
+    public RequestReplyMetrics getRecalculationMetrics() {
+        return taxRequestReplyClient.metrics();
+    }
+
+    @Override
+    public TaxCacheMetrics getCacheMetrics() {
+        return taxRecordCache.metrics();
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return taxListProperties.getDefaultPageSize();
         }
+        return Math.min(size, taxListProperties.getMaxPageSize());
     }
-}
\ No newline at end of file
+}
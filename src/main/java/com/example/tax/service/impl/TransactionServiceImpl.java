@@ -0,0 +1,83 @@
+package com.example.tax.service.impl;
+
+import com.core.lib.entity.Transaction;
+import com.core.lib.exception.BusinessException;
+import com.example.tax.config.IngestionProperties;
+import com.example.tax.ingestion.ReplayResult;
+import com.example.tax.ingestion.TransactionEventPublisher;
+import com.example.tax.messaging.KafkaBulkPublisher;
+import com.example.tax.messaging.PublishResult;
+import com.example.tax.messaging.PublisherMetrics;
+import com.example.tax.repository.TransactionRepository;
+import com.example.tax.service.TransactionService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+@Log4j2
+public class TransactionServiceImpl implements TransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionEventPublisher eventPublisher;
+    private final IngestionProperties properties;
+
+    public TransactionServiceImpl(TransactionRepository transactionRepository, TransactionEventPublisher eventPublisher,
+                                  IngestionProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    @Override
+    public ReplayResult replayTaxCalculationEvents(Instant afterTxnDate, Long afterId, int maxRecords) {
+        if ((afterTxnDate == null) != (afterId == null)) {
+            throw new BusinessException("400", "afterTxnDate and afterId must be given together");
+        }
+        log.info("Replaying tax_calculation events after ({}, {}), max {}", afterTxnDate, afterId, maxRecords);
+
+        Instant lastTxnDate = afterTxnDate;
+        Long lastId = afterId;
+        long read = 0;
+        boolean completed = false;
+        KafkaBulkPublisher.Batch events = eventPublisher.begin();
+        PublishResult published;
+
+        try {
+            while (read < maxRecords) {
+                int limit = (int) Math.min(properties.getReplayPageSize(), maxRecords - read);
+                List<Transaction> page = lastId == null
+                        ? transactionRepository.findFirstKeysetPage(limit)
+                        : transactionRepository.findKeysetPageAfter(lastTxnDate, lastId, limit);
+
+                if (!page.isEmpty()) {
+                    eventPublisher.publish(events, page);
+                    read += page.size();
+                    Transaction last = page.get(page.size() - 1);
+                    lastTxnDate = last.getTxnDate();
+                    lastId = last.getId();
+                }
+                if (page.size() < limit) {
+                    completed = true;
+                    break;
+                }
+            }
+            published = events.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("503", "Replay interrupted after " + read + " transactions");
+        }
+
+        log.info("Replayed {} tax_calculation events ({} failed, {} unacknowledged), cursor now ({}, {})",
+                published.succeeded(), published.failed(), published.unacknowledged(), lastTxnDate, lastId);
+        return new ReplayResult(published.succeeded(), published.failed() + published.unacknowledged(),
+                lastTxnDate, lastId, completed);
+    }
+
+    @Override
+    public PublisherMetrics getPublisherMetrics() {
+        return eventPublisher.metrics();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.tax.utility;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads what {@link BinaryWriter} writes. Malformed input fails with an {@link IllegalArgumentException} or an
+ * {@link ArrayIndexOutOfBoundsException}.
+ */
+public final class BinaryReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    public BinaryReader(byte[] bytes, int position) {
+        this.bytes = bytes;
+        this.position = position;
+    }
+
+    public byte getByte() {
+        return bytes[position++];
+    }
+
+    public long varLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = bytes[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    public Long nullableVarLong() {
+        return bytes[position++] == 0 ? null : varLong();
+    }
+
+    public double getDouble() {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (bytes[position++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public Double nullableDouble() {
+        return bytes[position++] == 0 ? null : getDouble();
+    }
+
+    public String string() {
+        long lengthPlusOne = varLong();
+        if (lengthPlusOne == 0) return null;
+        int length = (int) (lengthPlusOne - 1);
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.tax.utility;
+
+import java.util.Arrays;
+
+/**
+ * Writes the compact binary encodings of the tax messages and cached values: unsigned varints, 8-byte big-endian
+ * doubles with an optional presence byte, and strings as a varint of (UTF-8 length + 1) followed by the bytes, with 0
+ * meaning null. Sized with the static helpers, a writer fills its array exactly and {@link #toByteArray()} hands it
+ * over without copying; a writer that runs out of room grows.
+ */
+public final class BinaryWriter {
+
+    private byte[] bytes;
+    private int position;
+
+    public BinaryWriter(int capacity) {
+        this.bytes = new byte[Math.max(capacity, 1)];
+    }
+
+    public static int stringSize(String value) {
+        if (value == null) return 1;
+        int length = utf8Length(value);
+        return varLongSize(length + 1L) + length;
+    }
+
+    public static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    public static int nullableVarLongSize(Long value) {
+        return value == null ? 1 : 1 + varLongSize(value);
+    }
+
+    public static int nullableDoubleSize(Double value) {
+        return value == null ? 1 : 9;
+    }
+
+    public static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    public BinaryWriter putByte(byte value) {
+        ensure(1);
+        bytes[position++] = value;
+        return this;
+    }
+
+    public BinaryWriter putBytes(byte[] value) {
+        ensure(value.length);
+        System.arraycopy(value, 0, bytes, position, value.length);
+        position += value.length;
+        return this;
+    }
+
+    public BinaryWriter varLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return this;
+    }
+
+    public BinaryWriter nullableVarLong(Long value) {
+        if (value == null) {
+            return putByte((byte) 0);
+        }
+        putByte((byte) 1);
+        return varLong(value);
+    }
+
+    public BinaryWriter putDouble(double value) {
+        ensure(8);
+        long bits = Double.doubleToRawLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            bytes[position++] = (byte) (bits >>> shift);
+        }
+        return this;
+    }
+
+    public BinaryWriter nullableDouble(Double value) {
+        if (value == null) {
+            return putByte((byte) 0);
+        }
+        putByte((byte) 1);
+        return putDouble(value);
+    }
+
+    public BinaryWriter string(String value) {
+        if (value == null) {
+            return putByte((byte) 0);
+        }
+        int length = utf8Length(value);
+        varLong(length + 1L);
+        ensure(length);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | (c >> 6));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                // a lone surrogate is written as its 3-byte form and decodes to U+FFFD
+                bytes[position++] = (byte) (0xE0 | (c >> 12));
+                bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return position == bytes.length ? bytes : Arrays.copyOf(bytes, position);
+    }
+
+    private void ensure(int needed) {
+        if (position + needed > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + needed));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.tax.utility;
 
 import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.LocaleUtil;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -11,27 +12,146 @@ import java.time.format.DateTimeFormatter;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Cell value parsers. The fast paths look at the shape of the value first and only fall back to the original
+ * formatter/exception based parsing for shapes they do not handle, so results (and errors) match the original parsers.
+ */
 @Component
 public class ExcelFieldParser {
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
 
+    // yyyy-MM-dd'T'HH:mm:ss.SSSSSS
+    private static final int DATE_TIME_LENGTH = 26;
+    private static final int DATE_LENGTH = 10;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    // Excel serial day 0 in the 1900 date system; serials from 61 on are shifted by Excel's phantom 1900-02-29
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 31);
+    private static final int EXCEL_LEAP_BUG_SERIAL = 61;
+
     public static final Map<Class<?>, Function<String, ?>> PARSERS = Map.ofEntries(
             Map.entry(String.class, Function.identity()),
-            Map.entry(Double.class, (Function<String, Double>) Double::valueOf),
-            Map.entry(Integer.class, (Function<String, Integer>) Integer::valueOf),
-            Map.entry(LocalDate.class, (Function<String, LocalDate>) LocalDate::parse),
-            Map.entry(Instant.class, (Function<String, Instant>) s -> {
-                try {
-                    LocalDateTime ldt = LocalDateTime.parse(s, DATE_TIME_FORMATTER);
-                    return ldt.toInstant(ZoneOffset.UTC);
-                } catch (Exception e) {
-                    double excelDate = Double.parseDouble(s);
-                    return Instant.ofEpochMilli(DateUtil.getJavaDate(excelDate).getTime());
-                }
-            })
+            Map.entry(Double.class, (Function<String, Double>) ExcelFieldParser::parseDouble),
+            Map.entry(Integer.class, (Function<String, Integer>) ExcelFieldParser::parseInt),
+            Map.entry(LocalDate.class, (Function<String, LocalDate>) ExcelFieldParser::parseLocalDate),
+            Map.entry(Instant.class, (Function<String, Instant>) ExcelFieldParser::parseInstant)
     );
 
+    public static double parseDouble(String s) {
+        return Double.parseDouble(s);
+    }
+
+    public static int parseInt(String s) {
+        return Integer.parseInt(s);
+    }
+
+    public static LocalDate parseLocalDate(String s) {
+        if (s.length() == DATE_LENGTH && s.charAt(4) == '-' && s.charAt(7) == '-') {
+            int year = digits(s, 0, 4);
+            int month = digits(s, 5, 2);
+            int day = digits(s, 8, 2);
+            if (isValidDate(year, month, day)) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(s);
+    }
+
+    /**
+     * ISO local date-time (read as UTC) or an Excel serial date, without throwing for either shape.
+     */
+    public static Instant parseInstant(String s) {
+        if (s.length() == DATE_TIME_LENGTH && s.charAt(10) == 'T') {
+            Instant instant = parseIsoDateTime(s);
+            if (instant != null) return instant;
+        } else if (isUnsignedDecimal(s)) {
+            return excelSerialToInstant(Double.parseDouble(s));
+        }
+        return parseInstantFallback(s);
+    }
+
+    private static Instant parseInstantFallback(String s) {
+        try {
+            LocalDateTime ldt = LocalDateTime.parse(s, DATE_TIME_FORMATTER);
+            return ldt.toInstant(ZoneOffset.UTC);
+        } catch (Exception e) {
+            double excelDate = Double.parseDouble(s);
+            return Instant.ofEpochMilli(DateUtil.getJavaDate(excelDate).getTime());
+        }
+    }
+
+    private static Instant parseIsoDateTime(String s) {
+        if (s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(13) != ':' || s.charAt(16) != ':'
+                || s.charAt(19) != '.') {
+            return null;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        int second = digits(s, 17, 2);
+        int micros = digits(s, 20, 6);
+        // 'yyyy' is year-of-era, so year 0 is rejected by the formatter
+        if (year < 1 || !isValidDate(year, month, day) || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || second < 0 || second > 59 || micros < 0) {
+            // out-of-range and SMART-resolved values (e.g. 31st of a 30-day month) take the formatter path
+            return null;
+        }
+        long epochSecond = LocalDate.of(year, month, day).toEpochDay() * 86_400L
+                + hour * 3_600L + minute * 60L + second;
+        return Instant.ofEpochSecond(epochSecond, micros * 1_000L);
+    }
+
+    /**
+     * Same result as {@code DateUtil.getJavaDate(serial)} (1900 date system, POI's user time zone), computed
+     * arithmetically instead of through a lenient Calendar.
+     */
+    private static Instant excelSerialToInstant(double serial) {
+        int wholeDays = (int) Math.floor(serial);
+        int millisInDay = (int) ((serial - wholeDays) * MILLIS_PER_DAY + 0.5);
+        int dayAdjust = wholeDays < EXCEL_LEAP_BUG_SERIAL ? 0 : -1;
+
+        LocalDateTime local = EXCEL_EPOCH.plusDays(wholeDays + dayAdjust).atStartOfDay()
+                .plusNanos(millisInDay * 1_000_000L);
+        // Calendar resolves an ambiguous wall time to standard time, i.e. the later offset
+        return local.atZone(LocaleUtil.getUserTimeZone().toZoneId()).withLaterOffsetAtOverlap().toInstant();
+    }
+
+    private static boolean isUnsignedDecimal(String s) {
+        int length = s.length();
+        if (length == 0) return false;
+
+        boolean digit = false;
+        boolean dot = false;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return false;
+            }
+        }
+        return digit;
+    }
+
+    private static boolean isValidDate(int year, int month, int day) {
+        return year >= 0 && month >= 1 && month <= 12 && day >= 1
+                && day <= LocalDate.of(year, month, 1).lengthOfMonth();
+    }
 
+    // Non-negative value of a run of ASCII digits, or -1 if any character is not a digit
+    private static int digits(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
 }
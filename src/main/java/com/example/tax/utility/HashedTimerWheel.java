@@ -0,0 +1,129 @@
+package com.example.tax.utility;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel for large numbers of short timeouts that are usually cancelled before they fire. Scheduling and
+ * cancelling are O(1) and lock-free; a single worker thread advances the wheel once per tick and runs expired tasks,
+ * so tasks must be short. Timeouts fire up to one tick late.
+ */
+@Log4j2
+public class HashedTimerWheel implements AutoCloseable {
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] buckets;
+    // New timeouts are handed to the worker here, so only the worker touches the buckets
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final long startNanos;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(String name, long tick, TimeUnit unit, int wheelSize) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = Math.max(1, unit.toNanos(tick));
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = ThreadFactories.named(name).newThread(this::run);
+        worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(Math.max(0, delay)));
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    @Override
+    public void close() {
+        if (running.compareAndSet(true, false)) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running.get()) {
+            long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = tickDeadline - System.nanoTime()) > 0 && running.get()) {
+                LockSupport.parkNanos(sleep);
+            }
+            transferIncoming(tick);
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferIncoming(long currentTick) {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.isDone()) continue;
+
+            long deadlineTick = Math.max(currentTick, (timeout.deadlineNanos - startNanos) / tickNanos);
+            timeout.remainingRounds = (deadlineTick - currentTick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket) {
+        for (Iterator<Timeout> it = bucket.iterator(); it.hasNext(); ) {
+            Timeout timeout = it.next();
+            if (timeout.isDone()) {
+                it.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                it.remove();
+                timeout.fire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicBoolean done = new AtomicBoolean();
+        // Touched by the worker thread only
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Returns false if the timeout already fired or was cancelled.
+         */
+        public boolean cancel() {
+            return done.compareAndSet(false, true);
+        }
+
+        public boolean isDone() {
+            return done.get();
+        }
+
+        private void fire() {
+            if (!done.compareAndSet(false, true)) return;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("Timer task failed: {}", t.getMessage(), t);
+            }
+        }
+    }
+}
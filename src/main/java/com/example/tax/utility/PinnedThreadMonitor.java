@@ -0,0 +1,75 @@
+package com.example.tax.utility;
+
+import com.example.tax.config.ThreadingProperties;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In virtual-thread mode, streams JFR's {@code jdk.VirtualThreadPinned} events and logs where a virtual thread held
+ * on to its carrier: blocking inside {@code synchronized} (our code or a library's) or a native frame. Pinned
+ * threads cap throughput at the number of carriers, so a hot path showing up here should move to a
+ * {@code ReentrantLock}.
+ */
+@Component
+@Log4j2
+public class PinnedThreadMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final WorkerThreads workerThreads;
+    private final ThreadingProperties properties;
+    private final LongAdder pinnedEvents = new LongAdder();
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(WorkerThreads workerThreads, ThreadingProperties properties) {
+        this.workerThreads = workerThreads;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!workerThreads.isVirtual()) return;
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(properties.getPinnedThreshold()).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for longer than {}", properties.getPinnedThreshold());
+    }
+
+    public long pinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedEvents.increment();
+        StringBuilder frames = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> stack = event.getStackTrace().getFrames();
+            for (int i = 0; i < Math.min(stack.size(), properties.getPinnedStackDepth()); i++) {
+                RecordedFrame frame = stack.get(i);
+                frames.append("\n\tat ").append(frame.getMethod().getType().getName()).append('.')
+                        .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+            }
+        }
+        log.warn("Virtual thread {} pinned for {} ms{}",
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                event.getDuration().toMillis(), frames);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.tax.utility;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * Daemon threads named {@code prefix-1}, {@code prefix-2}, ...
+     */
+    public static ThreadFactory named(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Virtual threads named {@code prefix-1}, {@code prefix-2}, ... (virtual threads are always daemons).
+     */
+    public static ThreadFactory virtual(String prefix) {
+        return Thread.ofVirtual().name(prefix + "-", 1).factory();
+    }
+}
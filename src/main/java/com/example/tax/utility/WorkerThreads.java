@@ -0,0 +1,30 @@
+package com.example.tax.utility;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the service's own executors, following {@code spring.threads.virtual.enabled} like Tomcat and
+ * the Kafka listener containers do. Pool sizes stay as configured either way: they limit how much work runs at once
+ * (database connections, CPU), which virtual threads do not change.
+ */
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    public WorkerThreads(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory named(String prefix) {
+        return virtual ? ThreadFactories.virtual(prefix) : ThreadFactories.named(prefix);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.tax.cache;
+
+import com.core.lib.entity.TaxRecord;
+import com.example.tax.utility.BinaryWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.example.tax.cache.TaxRecordCodecTest.assertSameRecord;
+import static com.example.tax.cache.TaxRecordCodecTest.record;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressingCacheValueCodecTest {
+
+    private static final int THRESHOLD = 512;
+
+    // stores the bytes it is given, so tests control exactly what gets compressed
+    private static final CacheValueCodec<byte[]> IDENTITY = new CacheValueCodec<>() {
+        @Override
+        public byte[] encode(byte[] value) {
+            return value;
+        }
+
+        @Override
+        public byte[] decode(byte[] bytes) {
+            return bytes;
+        }
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final CacheValueCodec<TaxRecord> records =
+            new CompressingCacheValueCodec<>(new TaxRecordCodec(objectMapper), THRESHOLD);
+    private final CacheValueCodec<byte[]> bytes = new CompressingCacheValueCodec<>(IDENTITY, THRESHOLD);
+
+    @Test
+    void storesValuesBelowTheThresholdAsTheDelegateWroteThem() {
+        TaxRecord record = record(1L, "alice");
+        byte[] encoded = records.encode(record);
+
+        assertArrayEquals(new TaxRecordCodec(objectMapper).encode(record), encoded);
+        assertSameRecord(record, records.decode(encoded));
+    }
+
+    @Test
+    void deflatesValuesAboveTheThreshold() {
+        TaxRecord record = record(1L, "long-name-".repeat(100));
+        byte[] encoded = records.encode(record);
+
+        assertEquals(CompressingCacheValueCodec.MAGIC, encoded[0]);
+        assertTrue(encoded.length < THRESHOLD, encoded.length + " bytes");
+        assertSameRecord(record, records.decode(encoded));
+    }
+
+    @Test
+    void keepsIncompressibleValuesPlain() {
+        byte[] random = new byte[4_096];
+        new Random(42).nextBytes(random);
+        random[0] = 0x01;
+
+        byte[] encoded = bytes.encode(random);
+        assertArrayEquals(random, encoded);
+        assertArrayEquals(random, bytes.decode(encoded));
+    }
+
+    @Test
+    void readsBothFormsWhateverTheThresholdIsNow() {
+        byte[] value = "abc".repeat(1_000).getBytes();
+        byte[] deflated = new CompressingCacheValueCodec<>(IDENTITY, 0).encode(value);
+        byte[] plain = new CompressingCacheValueCodec<>(IDENTITY, Integer.MAX_VALUE).encode(value);
+
+        assertEquals(CompressingCacheValueCodec.MAGIC, deflated[0]);
+        assertArrayEquals(value, plain);
+        assertArrayEquals(value, new CompressingCacheValueCodec<>(IDENTITY, Integer.MAX_VALUE).decode(deflated));
+        assertArrayEquals(value, new CompressingCacheValueCodec<>(IDENTITY, 0).decode(plain));
+    }
+
+    @Test
+    void readsLegacyJsonEntries() throws Exception {
+        TaxRecord record = record(7L, "bob");
+        assertSameRecord(record, records.decode(objectMapper.writeValueAsBytes(record)));
+    }
+
+    @Test
+    void rejectsTruncatedCompressedValues() {
+        byte[] encoded = bytes.encode("abc".repeat(1_000).getBytes());
+        for (int cut = 1; cut <= 8; cut++) {
+            byte[] truncated = Arrays.copyOf(encoded, encoded.length - cut);
+            assertThrows(IllegalArgumentException.class, () -> bytes.decode(truncated), "cut " + cut);
+        }
+    }
+
+    @Test
+    void rejectsCorruptCompressedValues() {
+        byte[] encoded = bytes.encode("abc".repeat(1_000).getBytes());
+        // after the magic and the varint length, 0xFF starts a deflate block of the reserved type 3
+        int payload = 1 + BinaryWriter.varLongSize(3_000);
+        Arrays.fill(encoded, payload, encoded.length, (byte) 0xFF);
+        assertThrows(IllegalArgumentException.class, () -> bytes.decode(encoded));
+    }
+}
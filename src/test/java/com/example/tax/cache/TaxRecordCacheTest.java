@@ -0,0 +1,152 @@
+package com.example.tax.cache;
+
+import com.core.lib.entity.TaxRecord;
+import com.example.tax.config.TaxCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.example.tax.cache.TaxRecordCodecTest.record;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaxRecordCacheTest {
+
+    private static final int THREADS = 16;
+
+    private TaxRecordCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaxRecordCache(new EmptyRedis(), new TaxRecordCodec(new ObjectMapper()), new TaxCacheProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 200; round++) {
+                String user = "user-" + round;
+                AtomicInteger calls = new AtomicInteger();
+                Function<String, Optional<TaxRecord>> loader = key -> {
+                    calls.incrementAndGet();
+                    return Optional.of(record(1L, key));
+                };
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Optional<TaxRecord>>> results = new ArrayList<>(THREADS);
+                for (int i = 0; i < THREADS; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return cache.getOrLoad(user, loader);
+                    }));
+                }
+                start.countDown();
+
+                for (Future<Optional<TaxRecord>> result : results) {
+                    assertEquals(user, result.get().orElseThrow().getUserName());
+                }
+                assertEquals(1, calls.get(), "database loads of " + user);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(200, cache.metrics().loads());
+    }
+
+    @Test
+    void sharesTheLoadAcrossSpellingsOfOneUser() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, Optional<TaxRecord>> loader = key -> {
+            calls.incrementAndGet();
+            return Optional.of(record(1L, key));
+        };
+
+        assertEquals("alice", cache.getOrLoad("  Alice ", loader).orElseThrow().getUserName());
+        assertEquals("alice", cache.getOrLoad("ALICE", loader).orElseThrow().getUserName());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void remembersUnknownUsers() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, Optional<TaxRecord>> loader = key -> {
+            calls.incrementAndGet();
+            return Optional.empty();
+        };
+
+        assertTrue(cache.getOrLoad("ghost", loader).isEmpty());
+        assertTrue(cache.getOrLoad("ghost", loader).isEmpty());
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.metrics().negativeHits());
+    }
+
+    @Test
+    void writesReplaceCachedEntries() {
+        cache.getOrLoad("bob", key -> Optional.empty());
+        TaxRecord written = record(2L, "bob");
+        cache.put(written);
+
+        assertSame(written, cache.getOrLoad("bob", key -> {
+            throw new AssertionError("loaded despite a cached write");
+        }).orElseThrow());
+    }
+
+    @Test
+    void anotherInstancesInvalidationDropsTheEntry() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, Optional<TaxRecord>> loader = key -> Optional.of(record((long) calls.incrementAndGet(), key));
+        cache.getOrLoad("carol", loader);
+
+        cache.onMessage(new DefaultMessage("tax:invalidate".getBytes(StandardCharsets.UTF_8),
+                "other-instance\ndave\ncarol".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals(2L, cache.getOrLoad("carol", loader).orElseThrow().getId());
+        assertEquals(1, cache.metrics().invalidationsReceived());
+    }
+
+    @Test
+    void failedLoadReleasesTheKey() {
+        assertThrows(IllegalStateException.class, () -> cache.getOrLoad("erin", key -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals(3L, cache.getOrLoad("erin", key -> Optional.of(record(3L, key))).orElseThrow().getId());
+    }
+
+    // A Redis that has nothing cached and accepts every write
+    private static final class EmptyRedis extends StringRedisTemplate {
+
+        @Override
+        public <T> T execute(RedisCallback<T> action) {
+            return null;
+        }
+
+        @Override
+        public List<Object> executePipelined(RedisCallback<?> action) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.tax.cache;
+
+import com.core.lib.entity.TaxRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode latency of the cached TaxRecord formats: JSON, binary, and binary behind the compressing codec at
+ * the default 512-byte threshold. The long user name pushes an entry over the threshold to show what deflate costs.
+ * Not run by the build; start it with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.tax.cache.TaxRecordCodecBenchmark}. {@link #main} prints the encoded sizes first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaxRecordCodecBenchmark {
+
+    private static final int THRESHOLD = 512;
+
+    @Param({"json", "binary", "compressed"})
+    public String format;
+
+    @Param({"8", "1000"})
+    public int userNameLength;
+
+    private CacheValueCodec<TaxRecord> codec;
+    private TaxRecord record;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        codec = codec(format);
+        record = record(userNameLength);
+        encoded = codec.encode(record);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(record);
+    }
+
+    @Benchmark
+    public TaxRecord decode() {
+        return codec.decode(encoded);
+    }
+
+    private static CacheValueCodec<TaxRecord> codec(String format) {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        return switch (format) {
+            case "json" -> new JsonCacheValueCodec<>(objectMapper, TaxRecord.class);
+            case "binary" -> new TaxRecordCodec(objectMapper);
+            case "compressed" -> new CompressingCacheValueCodec<>(new TaxRecordCodec(objectMapper), THRESHOLD);
+            default -> throw new IllegalArgumentException(format);
+        };
+    }
+
+    private static TaxRecord record(int userNameLength) {
+        StringBuilder userName = new StringBuilder(userNameLength);
+        for (int i = 0; i < userNameLength; i++) {
+            userName.append((char) ('a' + i % 26));
+        }
+        return TaxRecordCodecTest.record(1_234_567L, userName.toString());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int length : new int[]{8, 1000}) {
+            for (String format : new String[]{"json", "binary", "compressed"}) {
+                System.out.printf("%-10s user name %4d chars: %5d bytes%n", format, length,
+                        codec(format).encode(record(length)).length);
+            }
+        }
+        new Runner(new OptionsBuilder()
+                .include(TaxRecordCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
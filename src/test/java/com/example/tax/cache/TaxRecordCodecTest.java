@@ -0,0 +1,95 @@
+package com.example.tax.cache;
+
+import com.core.lib.entity.TaxRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaxRecordCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final TaxRecordCodec codec = new TaxRecordCodec(objectMapper);
+
+    static TaxRecord record(Long id, String userName) {
+        return TaxRecord.builder()
+                .id(id)
+                .userName(userName)
+                .income(750_000.0)
+                .taxAmount(62_500.0)
+                .netIncome(687_500.0)
+                .build();
+    }
+
+    static void assertSameRecord(TaxRecord expected, TaxRecord actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getUserName(), actual.getUserName());
+        assertEquals(expected.getIncome(), actual.getIncome());
+        assertEquals(expected.getTaxAmount(), actual.getTaxAmount());
+        assertEquals(expected.getNetIncome(), actual.getNetIncome());
+    }
+
+    @Test
+    void roundTripsEveryField() {
+        for (TaxRecord record : new TaxRecord[]{
+                record(1L, "alice"),
+                record(Long.MAX_VALUE, "Zoë Ångström 山田"),
+                TaxRecord.builder().id(0L).userName("x").income(-0.0).taxAmount(Double.NaN)
+                        .netIncome(Double.MIN_VALUE).build()}) {
+            assertSameRecord(record, codec.decode(codec.encode(record)));
+        }
+    }
+
+    @Test
+    void keepsNullFieldsApartFromEmptyOnes() {
+        TaxRecord nulls = TaxRecord.builder().build();
+        assertSameRecord(nulls, codec.decode(codec.encode(nulls)));
+
+        TaxRecord emptyName = record(null, "");
+        assertSameRecord(emptyName, codec.decode(codec.encode(emptyName)));
+    }
+
+    @Test
+    void isLessThanHalfTheJsonSize() throws Exception {
+        TaxRecord record = record(123_456L, "alice");
+        int binary = codec.encode(record).length;
+        int json = objectMapper.writeValueAsBytes(record).length;
+        assertTrue(binary * 2 < json, binary + " bytes binary vs " + json + " bytes JSON");
+    }
+
+    @Test
+    void readsLegacyJsonEntries() throws Exception {
+        TaxRecord record = record(7L, "bob");
+        assertSameRecord(record, codec.decode(objectMapper.writeValueAsBytes(record)));
+    }
+
+    @Test
+    void ignoresFieldsAppendedByALaterVersion() {
+        byte[] current = codec.encode(record(7L, "bob"));
+        byte[] later = Arrays.copyOf(current, current.length + 3);
+        later[1] = TaxRecordCodec.VERSION + 1;
+        assertSameRecord(record(7L, "bob"), codec.decode(later));
+    }
+
+    @Test
+    void rejectsTruncatedValues() {
+        byte[] encoded = codec.encode(record(7L, "bob"));
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    void rejectsForeignBytes() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[]{0x01, 0x01, 0x00}));
+
+        byte[] unknownVersion = codec.encode(record(7L, "bob"));
+        unknownVersion[1] = 0;
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(unknownVersion));
+    }
+}
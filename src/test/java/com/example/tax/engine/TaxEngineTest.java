@@ -0,0 +1,78 @@
+package com.example.tax.engine;
+
+import com.example.tax.config.TaxEngineProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TaxEngineTest {
+
+    private static final SlabTable DEFAULT = new SlabTable(new double[]{0, 250_000, 500_000, 1_000_000},
+            new double[]{0, 0.05, 0.20, 0.30});
+    // First threshold above zero and a taxed first slab
+    private static final SlabTable OFFSET = new SlabTable(new double[]{100, 1_000, 10_000},
+            new double[]{0.1, 0.2, 0.35});
+
+    @Test
+    void lookupAddsCumulativeTaxOfLowerSlabs() {
+        assertEquals(0, DEFAULT.taxFor(250_000));
+        assertEquals(62_500, DEFAULT.taxFor(750_000));
+        assertEquals(112_500 + 30_000, DEFAULT.taxFor(1_100_000));
+        assertEquals(0, DEFAULT.taxFor(Double.NaN));
+        assertEquals(0, DEFAULT.taxFor(-1));
+    }
+
+    @Test
+    void bulkPathMatchesLookup() {
+        TaxEngine engine = new TaxEngine(new TaxEngineProperties());
+        for (SlabTable table : new SlabTable[]{DEFAULT, OFFSET}) {
+            double[] incomes = incomes(table);
+            assertSameTaxes(table, incomes, engine.calculateTaxes(table, incomes));
+        }
+    }
+
+    // Runs with the vector profile (mvn -Pvector test); the default build has no vector kernel
+    @Test
+    void vectorKernelMatchesLookup() {
+        Optional<BulkTaxKernel> kernel = TaxEngine.vectorKernel();
+        assumeTrue(kernel.isPresent(), "vector kernel not built or jdk.incubator.vector not enabled");
+        for (SlabTable table : new SlabTable[]{DEFAULT, OFFSET}) {
+            double[] incomes = incomes(table);
+            double[] taxes = new double[incomes.length];
+            kernel.get().compute(table, incomes, taxes);
+            assertSameTaxes(table, incomes, taxes);
+        }
+    }
+
+    private static void assertSameTaxes(SlabTable table, double[] incomes, double[] taxes) {
+        for (int i = 0; i < incomes.length; i++) {
+            // assertEquals on doubles compares bits: NaN equals NaN, -0.0 differs from 0.0
+            assertEquals(table.taxFor(incomes[i]), taxes[i], "income " + incomes[i]);
+        }
+    }
+
+    // Edge cases first, then random incomes; the length is not a multiple of any vector width
+    private static double[] incomes(SlabTable table) {
+        double[] edges = {Double.NaN, -0.0, 0.0, -1, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1e-300, 99.99999999999999};
+        Random random = new Random(42);
+        double[] incomes = new double[edges.length + table.size() * 3 + 10_007];
+        int n = 0;
+        for (double edge : edges) {
+            incomes[n++] = edge;
+        }
+        for (int s = 0; s < table.size(); s++) {
+            incomes[n++] = table.lower(s);
+            incomes[n++] = Math.nextDown(table.lower(s));
+            incomes[n++] = Math.nextUp(table.lower(s));
+        }
+        while (n < incomes.length) {
+            incomes[n++] = random.nextInt(10) == 0 ? random.nextGaussian() * 1_000 : random.nextDouble() * 5_000_000;
+        }
+        return incomes;
+    }
+}
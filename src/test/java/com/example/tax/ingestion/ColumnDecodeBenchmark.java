@@ -0,0 +1,121 @@
+package com.example.tax.ingestion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cell-to-slot decoding of a sheet as the SAX callback sees it: the legacy regex column decode with a fresh
+ * {@code String[17]} per row, against {@link ColumnPlan#columnIndex} and a plan lookup into a reused row buffer (the
+ * pipeline's pool). Rows carry the 17 fields plus three extra columns. Not run by the build; start it with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.tax.ingestion.ColumnDecodeBenchmark}; {@link #main} adds the gc profiler, so the
+ * output also shows bytes allocated per sheet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnDecodeBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int COLUMNS = TransactionField.COUNT + 3;
+
+    private String[][] references;
+    private String[] values;
+    private ColumnPlan plan;
+
+    @Setup
+    public void setUp() {
+        List<String> headers = new ArrayList<>();
+        for (TransactionField field : TransactionField.values()) {
+            headers.add(field.name().replace('_', ' '));
+        }
+        headers.add(3, "Notes");
+        headers.add(9, "Branch");
+        headers.add("Batch");
+        plan = ColumnPlan.fromHeader(headers);
+
+        references = new String[ROWS][COLUMNS];
+        values = new String[COLUMNS];
+        for (int col = 0; col < COLUMNS; col++) {
+            values[col] = "value-" + col;
+            for (int row = 0; row < ROWS; row++) {
+                references[row][col] = columnName(col) + (row + 2);
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacyRegexFreshRow(Blackhole blackhole) {
+        for (String[] row : references) {
+            String[] rowData = new String[TransactionField.COUNT];
+            for (int i = 0; i < row.length; i++) {
+                int col = legacyColumnIndex(row[i]);
+                if (col < rowData.length) {
+                    rowData[col] = values[i];
+                }
+            }
+            blackhole.consume(rowData);
+        }
+    }
+
+    @Benchmark
+    public void planLookupPooledRow(Blackhole blackhole) {
+        String[] rowData = new String[TransactionField.COUNT];
+        for (String[] row : references) {
+            Arrays.fill(rowData, null);
+            for (int i = 0; i < row.length; i++) {
+                int slot = plan.slot(ColumnPlan.columnIndex(row[i]));
+                if (slot != ColumnPlan.UNMAPPED) {
+                    rowData[slot] = values[i];
+                }
+            }
+            blackhole.consume(rowData);
+        }
+    }
+
+    // the pre-ColumnPlan SheetHandler decode
+    private static int legacyColumnIndex(String cellRef) {
+        String letters = cellRef.replaceAll("\\d", "");
+        int col = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            col *= 26;
+            col += letters.charAt(i) - 'A' + 1;
+        }
+        return col - 1;
+    }
+
+    private static String columnName(int col) {
+        StringBuilder name = new StringBuilder();
+        for (int n = col + 1; n > 0; n = (n - 1) / 26) {
+            name.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ColumnDecodeBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
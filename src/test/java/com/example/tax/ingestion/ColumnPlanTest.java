@@ -0,0 +1,78 @@
+package com.example.tax.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnPlanTest {
+
+    @Test
+    void headerAliasesResolveRegardlessOfCaseAndSeparators() {
+        assertEquals(TransactionField.TXN_DATE, TransactionField.fromHeader("Txn Date"));
+        assertEquals(TransactionField.TXN_DATE, TransactionField.fromHeader("txn_date"));
+        assertEquals(TransactionField.TXN_DATE, TransactionField.fromHeader("TXN-DATE"));
+        assertEquals(TransactionField.ACCOUNT_NUMBER, TransactionField.fromHeader("Account No"));
+        assertEquals(TransactionField.TRANSACTION_ID, TransactionField.fromHeader(" Txn ID "));
+        assertNull(TransactionField.fromHeader("Amt"));
+        assertNull(TransactionField.fromHeader(null));
+    }
+
+    @Test
+    void reorderedAndExtraColumnsLandInTheirSlots() {
+        ColumnPlan plan = ColumnPlan.fromHeader(Arrays.asList(
+                "Amount", "Notes", "Transaction ID", null, "Account Number", "Txn Date"));
+
+        assertEquals(TransactionField.AMOUNT.ordinal(), plan.slot(0));
+        assertEquals(ColumnPlan.UNMAPPED, plan.slot(1));
+        assertEquals(TransactionField.TRANSACTION_ID.ordinal(), plan.slot(2));
+        assertEquals(ColumnPlan.UNMAPPED, plan.slot(3));
+        assertEquals(TransactionField.ACCOUNT_NUMBER.ordinal(), plan.slot(4));
+        assertEquals(TransactionField.TXN_DATE.ordinal(), plan.slot(5));
+        assertEquals(ColumnPlan.UNMAPPED, plan.slot(6));
+        assertEquals(ColumnPlan.UNMAPPED, plan.slot(-1));
+        assertTrue(plan.missingFields().isEmpty());
+    }
+
+    @Test
+    void duplicateHeaderKeepsTheFirstColumn() {
+        ColumnPlan plan = ColumnPlan.fromHeader(List.of("Amount", "Txn Date", "amount"));
+
+        assertEquals(TransactionField.AMOUNT.ordinal(), plan.slot(0));
+        assertEquals(ColumnPlan.UNMAPPED, plan.slot(2));
+    }
+
+    @Test
+    void headerWithoutKnownNamesFallsBackToPositionalLayout() {
+        ColumnPlan plan = ColumnPlan.fromHeader(List.of("c1", "c2", "c3"));
+
+        assertSame(ColumnPlan.positional(), plan);
+        for (TransactionField field : TransactionField.values()) {
+            assertEquals(field.ordinal(), plan.slot(field.ordinal()));
+        }
+        assertEquals(ColumnPlan.UNMAPPED, plan.slot(TransactionField.COUNT));
+    }
+
+    @Test
+    void misspelledRequiredHeaderIsReportedInsteadOfFallingBack() {
+        ColumnPlan plan = ColumnPlan.fromHeader(List.of("Txn Date", "Transaction ID", "Account Number", "Amt"));
+
+        assertEquals(Set.of(TransactionField.AMOUNT), plan.missingFields());
+        assertEquals(ColumnPlan.UNMAPPED, plan.slot(3));
+    }
+
+    @Test
+    void cellReferenceDecodesToZeroBasedColumn() {
+        assertEquals(0, ColumnPlan.columnIndex("A1"));
+        assertEquals(25, ColumnPlan.columnIndex("Z9"));
+        assertEquals(26, ColumnPlan.columnIndex("AA1"));
+        assertEquals(27, ColumnPlan.columnIndex("AB12"));
+        assertEquals(16_383, ColumnPlan.columnIndex("XFD1048576"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.tax.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvLineParserTest {
+
+    private static List<String> fields(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return CsvLineParser.splitToList(bytes, bytes.length);
+    }
+
+    // Splits the text into records the way a chunk reader does and returns each record's fields
+    private static List<List<String>> records(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CsvLineParser parser = new CsvLineParser(ColumnPlan.positional());
+        List<List<String>> records = new ArrayList<>();
+        int position = 0;
+        while (position < bytes.length) {
+            int end = parser.recordEnd(buffer, position, bytes.length);
+            int length = end - position;
+            if (length > 0 && bytes[end - 1] == '\r') length--;
+            records.add(CsvLineParser.splitToList(Arrays.copyOfRange(bytes, position, position + length), length));
+            position = end + 1;
+        }
+        return records;
+    }
+
+    @Test
+    void splitsPlainFieldsAndReadsEmptyOnesAsNull() {
+        assertEquals(Arrays.asList("a", "b", "c"), fields("a,b,c"));
+        assertEquals(Arrays.asList(null, "b", null), fields(",b,"));
+        assertEquals(Arrays.asList("Zoë", "山田"), fields("Zoë,山田"));
+    }
+
+    @Test
+    void quotedFieldsKeepSeparatorsAndEscapedQuotes() {
+        assertEquals(Arrays.asList("a,b", "c"), fields("\"a,b\",c"));
+        assertEquals(Arrays.asList("say \"hi\"", "x"), fields("\"say \"\"hi\"\"\",x"));
+        assertEquals(Arrays.asList("\"", "x"), fields("\"\"\"\",x"));
+        // an empty quoted value is an empty string, not a missing one
+        assertEquals(Arrays.asList("", null), fields("\"\","));
+        // text between a closing quote and the separator is dropped; a quote inside an unquoted field is text
+        assertEquals(Arrays.asList("a", "5\" screen"), fields("\"a\"junk,5\" screen"));
+    }
+
+    @Test
+    void parseFillsTheSlotsOfThePlan() throws Exception {
+        CsvLineParser parser = new CsvLineParser(ColumnPlan.fromHeader(List.of("Amount", "Notes", "Transaction ID")));
+        byte[] line = "12.50,\"free, text\",TXN-1".getBytes(StandardCharsets.UTF_8);
+        String[] row = new String[TransactionField.COUNT];
+
+        parser.parse(line, line.length, row);
+
+        assertEquals("12.50", row[TransactionField.AMOUNT.ordinal()]);
+        assertEquals("TXN-1", row[TransactionField.TRANSACTION_ID.ordinal()]);
+        assertNull(row[TransactionField.REMARKS.ordinal()]);
+    }
+
+    @Test
+    void lineBreaksInsideQuotedValuesBelongToTheValue() {
+        List<List<String>> records = records("TXN-1,\"first line\nsecond line\",1\r\n"
+                + "TXN-2,\"ends with \"\"quote\"\"\n\",2\n"
+                + "TXN-3,plain,3\n");
+
+        assertEquals(3, records.size());
+        assertEquals(Arrays.asList("TXN-1", "first line\nsecond line", "1"), records.get(0));
+        assertEquals(Arrays.asList("TXN-2", "ends with \"quote\"\n", "2"), records.get(1));
+        assertEquals(Arrays.asList("TXN-3", "plain", "3"), records.get(2));
+    }
+
+    @Test
+    void quotesInsideUnquotedFieldsDoNotOpenAValue() {
+        List<List<String>> records = records("TXN-1,5\" screen,1\nTXN-2,x,2\n");
+
+        assertEquals(2, records.size());
+        assertEquals(Arrays.asList("TXN-2", "x", "2"), records.get(1));
+    }
+
+    @Test
+    void scannerCarriesItsStateAcrossPieces() {
+        byte[] text = "a,\"b\nc\"\"\nd\",e\nnext\n".getBytes(StandardCharsets.UTF_8);
+        int recordEnd = "a,\"b\nc\"\"\nd\",e\n".length();
+
+        for (int split = 0; split <= recordEnd; split++) {
+            CsvRecordScanner scanner = new CsvRecordScanner();
+            ByteBuffer buffer = ByteBuffer.wrap(text);
+            scanner.skip(buffer, 0, split);
+            int next = split == recordEnd ? split : scanner.nextRecordStart(buffer, split, text.length);
+            assertEquals(recordEnd, next, "split at " + split);
+            assertTrue(scanner.atRecordStart());
+        }
+
+        CsvRecordScanner scanner = new CsvRecordScanner();
+        scanner.skip(ByteBuffer.wrap(text), 0, 5);
+        assertFalse(scanner.atRecordStart());
+    }
+}
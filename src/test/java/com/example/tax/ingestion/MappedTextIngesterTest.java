@@ -0,0 +1,105 @@
+package com.example.tax.ingestion;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedTextIngesterTest {
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+    private Path file;
+
+    @BeforeEach
+    void createFile() throws Exception {
+        file = Files.createTempFile("ingest", ".csv");
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        workers.shutdownNow();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void chunkCutsInsideQuotedValuesMoveToTheRecordEnd() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        Random random = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            csv.append("TXN-").append(i).append(',');
+            switch (random.nextInt(4)) {
+                case 0 -> csv.append("\"multi\nline\n\"\"value\"\"\"");
+                // longer than several chunks: the chunks it covers are swallowed
+                case 1 -> csv.append('"').append("x\n".repeat(random.nextInt(200))).append('"');
+                case 2 -> csv.append("5\" screen");
+                default -> csv.append("plain");
+            }
+            csv.append(",").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        Files.write(file, bytes);
+
+        Set<Long> recordStarts = recordStarts(bytes);
+        assertEquals(2_000, recordStarts.size());
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = MappedTextIngester.alignToRecords(channel, lineChunks(bytes, 64), bytes.length,
+                    workers);
+
+            long expectedStart = 0;
+            for (long[] chunk : chunks) {
+                assertEquals(expectedStart, chunk[0]);
+                assertTrue(chunk[1] > chunk[0]);
+                assertTrue(recordStarts.contains(chunk[0]), "chunk starts inside a record at " + chunk[0]);
+                expectedStart = chunk[1];
+            }
+            assertEquals(bytes.length, expectedStart);
+        }
+    }
+
+    // Offsets at which records start, found by one sequential scan
+    private static Set<Long> recordStarts(byte[] bytes) {
+        Set<Long> starts = new HashSet<>();
+        CsvRecordScanner scanner = new CsvRecordScanner();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int position = 0;
+        while (position < bytes.length) {
+            starts.add((long) position);
+            int next = scanner.nextRecordStart(buffer, position, bytes.length);
+            position = next < 0 ? bytes.length : next;
+        }
+        return starts;
+    }
+
+    // What splitChunks produces: cuts just after the first line break at or after every chunkSize bytes
+    private static List<long[]> lineChunks(byte[] bytes, int chunkSize) {
+        List<long[]> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < bytes.length) {
+            int end = Math.min(start + chunkSize, bytes.length);
+            if (end < bytes.length) {
+                while (end < bytes.length && bytes[end] != '\n') end++;
+                end = Math.min(end + 1, bytes.length);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+}
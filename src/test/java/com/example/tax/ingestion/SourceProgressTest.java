@@ -0,0 +1,108 @@
+package com.example.tax.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SourceProgressTest {
+
+    @Test
+    void watermarkWaitsForTheLowestUnfinishedRow() {
+        SourceProgress progress = new SourceProgress("sheet", 0);
+
+        progress.finish(2);
+        progress.finish(3);
+        assertEquals(0, progress.watermark());
+
+        progress.finish(1);
+        assertEquals(3, progress.watermark());
+
+        progress.finish(5);
+        assertEquals(3, progress.watermark());
+        progress.finish(4);
+        assertEquals(5, progress.watermark());
+    }
+
+    @Test
+    void rangesFillGapsAndOverlapsAreHarmless() {
+        SourceProgress progress = new SourceProgress("chunk", 0);
+
+        progress.finishRange(11, 20);
+        progress.finishRange(5, 10);
+        assertEquals(0, progress.watermark());
+
+        progress.finishRange(1, 6);
+        assertEquals(20, progress.watermark());
+
+        // already below the watermark, or straddling it
+        progress.finishRange(1, 20);
+        progress.finishRange(15, 25);
+        assertEquals(25, progress.watermark());
+    }
+
+    @Test
+    void rowsCommittedByAnEarlierRunAreIgnored() {
+        SourceProgress progress = new SourceProgress("file.csv", 100);
+        assertEquals(100, progress.resumeAfter());
+        assertEquals(100, progress.watermark());
+        assertFalse(progress.dirty());
+
+        progress.finish(50);
+        assertEquals(100, progress.watermark());
+
+        progress.finishRange(90, 101);
+        assertEquals(101, progress.watermark());
+    }
+
+    @Test
+    void dirtyUntilTheWatermarkIsPersisted() {
+        SourceProgress progress = new SourceProgress("sheet", 0);
+        progress.finishRange(1, 10);
+        assertTrue(progress.dirty());
+
+        progress.markPersisted(progress.watermark());
+        assertFalse(progress.dirty());
+
+        progress.finish(12);
+        assertFalse(progress.dirty());
+        progress.finish(11);
+        assertTrue(progress.dirty());
+    }
+
+    @Test
+    void concurrentOutOfOrderFinishesReachTheLastRow() throws Exception {
+        int rows = 100_000;
+        List<Long> order = new ArrayList<>(rows);
+        for (long row = 1; row <= rows; row++) {
+            order.add(row);
+        }
+        Collections.shuffle(order, new Random(7));
+
+        SourceProgress progress = new SourceProgress("sheet", 0);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                List<Long> slice = order.subList(t * rows / threads, (t + 1) * rows / threads);
+                futures.add(executor.submit(() -> slice.forEach(progress::finish)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(rows, progress.watermark());
+    }
+}
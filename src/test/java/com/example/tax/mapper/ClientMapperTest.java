@@ -0,0 +1,89 @@
+package com.example.tax.mapper;
+
+import com.core.lib.entity.Client;
+import com.core.lib.entity.ClientContact;
+import com.core.lib.entity.Country;
+import com.core.lib.model.ClientContactDto;
+import com.core.lib.model.ClientDto;
+import com.core.lib.model.CountryDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.tax.mapper.MapperFixtures.populate;
+import static com.example.tax.mapper.MapperFixtures.properties;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * The generated mapper against ModelMapper, which it replaced: both must produce the same objects. The fixtures fill
+ * every property of the core.lib classes, so a field added there is covered without touching this test.
+ */
+class ClientMapperTest {
+
+    private static final int CONTACTS = 20;
+
+    private final ClientMapper clientMapper = new ClientMapperImpl();
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ObjectMapper json = JsonMapper.builder().findAndAddModules().build();
+
+    @Test
+    void dtoToClientMatchesModelMapper() {
+        ClientDto dto = clientDto();
+
+        Client mapped = clientMapper.toClient(dto);
+        Client expected = modelMapper.map(dto, Client.class);
+
+        assertFalse(properties(expected).isEmpty());
+        assertEquals(properties(expected), properties(mapped));
+    }
+
+    @Test
+    void dtoToContactAndCountryMatchModelMapper() {
+        ClientDto dto = clientDto();
+        Client client = new Client();
+
+        for (ClientContactDto contactDto : dto.getContacts()) {
+            ClientContact contact = clientMapper.toContact(contactDto, client);
+            assertEquals(properties(modelMapper.map(contactDto, ClientContact.class)), properties(contact));
+            assertSame(client, contact.getClient());
+        }
+        assertEquals(properties(modelMapper.map(dto.getCountry(), Country.class)),
+                properties(clientMapper.toCountry(dto.getCountry())));
+    }
+
+    @Test
+    void clientToDtoMatchesModelMapper() throws Exception {
+        Client client = populate(new Client(), 1);
+        client.setCountry(populate(new Country(), 2));
+        List<ClientContact> contacts = new ArrayList<>();
+        for (int i = 0; i < CONTACTS; i++) {
+            ClientContact contact = populate(new ClientContact(), 100 + i);
+            contact.setClient(client);
+            contacts.add(contact);
+        }
+        client.setContacts(contacts);
+
+        ClientDto mapped = clientMapper.toDto(client);
+        ClientDto expected = modelMapper.map(client, ClientDto.class);
+
+        assertEquals(CONTACTS, mapped.getContacts().size());
+        assertEquals(json.readTree(json.writeValueAsString(expected)), json.readTree(json.writeValueAsString(mapped)));
+    }
+
+    static ClientDto clientDto() {
+        ClientDto dto = populate(new ClientDto(), 1);
+        dto.setCountry(populate(new CountryDto(), 2));
+        List<ClientContactDto> contacts = new ArrayList<>();
+        for (int i = 0; i < CONTACTS; i++) {
+            contacts.add(populate(new ClientContactDto(), 100 + i));
+        }
+        dto.setContacts(contacts);
+        return dto;
+    }
+}
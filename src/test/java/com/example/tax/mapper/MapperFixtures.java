@@ -0,0 +1,88 @@
+package com.example.tax.mapper;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reflection helpers for mapper tests: fill every simple property of a bean, and read them back for comparison.
+ */
+final class MapperFixtures {
+
+    private MapperFixtures() {
+    }
+
+    /**
+     * Sets every simple-typed property (strings, numbers, booleans, dates, enums) to a value derived from its name
+     * and {@code seed}; nested objects and collections are left to the caller.
+     */
+    static <T> T populate(T bean, int seed) {
+        for (Method setter : bean.getClass().getMethods()) {
+            if (!setter.getName().startsWith("set") || setter.getParameterCount() != 1
+                    || Modifier.isStatic(setter.getModifiers())) {
+                continue;
+            }
+            Object value = sample(setter.getParameterTypes()[0], setter.getName().substring(3), seed);
+            if (value == null) continue;
+            try {
+                setter.invoke(bean, value);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot set " + setter.getName(), e);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Simple-typed property values by property name; nested objects and collections are skipped.
+     */
+    static Map<String, Object> properties(Object bean) {
+        Map<String, Object> properties = new TreeMap<>();
+        for (Method getter : bean.getClass().getMethods()) {
+            String name = getter.getName();
+            if (getter.getParameterCount() != 0 || Modifier.isStatic(getter.getModifiers())
+                    || name.equals("getClass") || !isSimple(getter.getReturnType())) {
+                continue;
+            }
+            String property = name.startsWith("get") ? name.substring(3)
+                    : name.startsWith("is") ? name.substring(2) : null;
+            if (property == null) continue;
+            try {
+                properties.put(property, getter.invoke(bean));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot read " + name, e);
+            }
+        }
+        return properties;
+    }
+
+    private static boolean isSimple(Class<?> type) {
+        return type.isPrimitive() && type != void.class || type == String.class || Number.class.isAssignableFrom(type)
+                || type == Boolean.class || type == LocalDate.class || type == LocalDateTime.class
+                || type == Instant.class || type.isEnum();
+    }
+
+    private static Object sample(Class<?> type, String property, int seed) {
+        int n = seed * 31 + property.hashCode() % 1000;
+        if (type == String.class) return property + "-" + seed;
+        if (type == Long.class || type == long.class) return (long) n;
+        if (type == Integer.class || type == int.class) return n;
+        if (type == Short.class || type == short.class) return (short) n;
+        if (type == Double.class || type == double.class) return n + 0.5;
+        if (type == Float.class || type == float.class) return n + 0.5f;
+        if (type == Boolean.class || type == boolean.class) return seed % 2 == 0;
+        if (type == BigDecimal.class) return BigDecimal.valueOf(n, 2);
+        if (type == LocalDate.class) return LocalDate.of(2024, 1, 1).plusDays(Math.abs(n) % 365);
+        if (type == LocalDateTime.class) return LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(Math.abs(n));
+        if (type == Instant.class) return Instant.parse("2024-01-01T00:00:00Z").plusSeconds(Math.abs(n));
+        if (type.isEnum() && type.getEnumConstants().length > 0) {
+            return type.getEnumConstants()[Math.abs(n) % type.getEnumConstants().length];
+        }
+        return null;
+    }
+}
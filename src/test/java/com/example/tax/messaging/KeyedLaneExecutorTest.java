@@ -0,0 +1,135 @@
+package com.example.tax.messaging;
+
+import com.example.tax.config.TaxCalculationProperties;
+import com.example.tax.utility.WorkerThreads;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyedLaneExecutorTest {
+
+    private static final int LANES = 4;
+
+    private KeyedLaneExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        TaxCalculationProperties properties = new TaxCalculationProperties();
+        properties.setLanes(LANES);
+        executor = new KeyedLaneExecutor(properties, new WorkerThreads(new StandardEnvironment()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void keepsArrivalOrderWithinEachKey() {
+        int keys = 16;
+        int perKey = 500;
+        // interleaved the way a poll mixes accounts: a0-0, a1-0, ..., a0-1, a1-1, ...
+        List<Item> items = new ArrayList<>(keys * perKey);
+        for (int seq = 0; seq < perKey; seq++) {
+            for (int key = 0; key < keys; key++) {
+                items.add(new Item("account-" + key, seq));
+            }
+        }
+
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        Map<String, Set<String>> threads = new ConcurrentHashMap<>();
+        executor.process(items, Item::key, lane -> {
+            for (Item item : lane) {
+                seen.computeIfAbsent(item.key(), k -> Collections.synchronizedList(new ArrayList<>())).add(item.seq());
+                threads.computeIfAbsent(item.key(), k -> ConcurrentHashMap.newKeySet())
+                        .add(Thread.currentThread().getName());
+            }
+        });
+
+        List<Integer> expected = IntStream.range(0, perKey).boxed().toList();
+        assertEquals(keys, seen.size());
+        seen.forEach((key, order) -> assertEquals(expected, order, "order of " + key));
+        threads.forEach((key, names) -> assertEquals(1, names.size(), key + " ran on " + names));
+    }
+
+    @Test
+    void rethrowsALaneFailureOnlyAfterTheOtherLanesFinish() {
+        List<String> keys = onePerLane();
+        String failing = keys.get(0);
+        List<Item> items = new ArrayList<>();
+        for (int seq = 0; seq < 10; seq++) {
+            for (String key : keys) {
+                items.add(new Item(key, seq));
+            }
+        }
+
+        IllegalStateException failure = new IllegalStateException("lane failed");
+        AtomicInteger finished = new AtomicInteger();
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> executor.process(items, Item::key, lane -> {
+                    if (lane.get(0).key().equals(failing)) {
+                        throw failure;
+                    }
+                    sleep(200);
+                    finished.incrementAndGet();
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals(LANES - 1, finished.get(), "lanes finished before the failure was rethrown");
+    }
+
+    @Test
+    void runsASingleLaneOnTheCallingThread() {
+        List<Item> items = List.of(new Item("account-1", 0), new Item("account-1", 1), new Item("account-1", 2));
+        List<String> threads = new ArrayList<>();
+        List<Integer> order = new ArrayList<>();
+        executor.process(items, Item::key, lane -> {
+            threads.add(Thread.currentThread().getName());
+            lane.forEach(item -> order.add(item.seq()));
+        });
+
+        assertEquals(List.of(Thread.currentThread().getName()), threads);
+        assertEquals(List.of(0, 1, 2), order);
+    }
+
+    // The first key found for each lane, lane 0 first; the lane is the key's hash modulo the lane count
+    private static List<String> onePerLane() {
+        String[] byLane = new String[LANES];
+        Set<Integer> found = new HashSet<>();
+        for (int i = 0; found.size() < LANES; i++) {
+            String key = "account-" + i;
+            int lane = Math.floorMod(key.hashCode(), LANES);
+            if (found.add(lane)) {
+                byLane[lane] = key;
+            }
+        }
+        return List.of(byLane);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Item(String key, int seq) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.tax.messaging;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize and deserialize cost of the tax messages: the JSON maps producers used to send, through Spring's
+ * JSON serializer pair, against the typed records through {@link TaxMessageSerializer} and
+ * {@link TaxMessageDeserializer}. Deserializing a map includes reading its fields with the casts the consumers did.
+ * Not run by the build; start it with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.tax.messaging.TaxMessageCodecBenchmark}. {@link #main} prints bytes per message first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaxMessageCodecBenchmark {
+
+    private static final String TOPIC = "tax_response";
+
+    @Param({"calculation", "request", "response"})
+    public String type;
+
+    private Serializer<Object> jsonSerializer;
+    private Deserializer<Object> jsonDeserializer;
+    private Serializer<Object> binarySerializer;
+    private Deserializer<Object> binaryDeserializer;
+    private Map<String, Object> map;
+    private Object message;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        jsonSerializer = new JsonSerializer<>();
+        jsonSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.configure(Map.of(JsonDeserializer.VALUE_DEFAULT_TYPE, LinkedHashMap.class.getName(),
+                JsonDeserializer.TRUSTED_PACKAGES, "*"), false);
+        binarySerializer = new TaxMessageSerializer();
+        binaryDeserializer = new TaxMessageDeserializer();
+        binaryDeserializer.configure(Map.of(), false);
+
+        map = map(type);
+        message = message(type);
+        json = jsonSerializer.serialize(TOPIC, map);
+        binary = binarySerializer.serialize(TOPIC, message);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializeJsonMap() {
+        return jsonSerializer.serialize(TOPIC, map);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(TOPIC, message);
+    }
+
+    @Benchmark
+    public Object deserializeJsonMap() {
+        Map<?, ?> value = (Map<?, ?>) jsonDeserializer.deserialize(TOPIC, json);
+        return switch (type) {
+            case "calculation" -> TaxCalculationMessage.fromMap(value);
+            case "request" -> TaxRequestMessage.fromMap(value);
+            default -> TaxResponseMessage.fromMap(value);
+        };
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return binaryDeserializer.deserialize(TOPIC, binary);
+    }
+
+    private static Map<String, Object> map(String type) {
+        Map<String, Object> map = new HashMap<>();
+        switch (type) {
+            case "calculation" -> {
+                map.put("transaction_id", "TXN-2024-000123456");
+                map.put("amount", 12_450.75);
+            }
+            case "request" -> {
+                map.put("id", 123_456L);
+                map.put("userName", "alice.sharma");
+                map.put("income", 1_250_000.0);
+            }
+            default -> {
+                map.put("id", 123_456L);
+                map.put("userName", "alice.sharma");
+                map.put("income", 1_250_000.0);
+                map.put("tax", 187_500.0);
+                map.put("netIncome", 1_062_500.0);
+            }
+        }
+        return map;
+    }
+
+    private static Object message(String type) {
+        return switch (type) {
+            case "calculation" -> new TaxCalculationMessage("TXN-2024-000123456", 12_450.75);
+            case "request" -> new TaxRequestMessage(123_456L, "alice.sharma", 1_250_000.0);
+            default -> new TaxResponseMessage(123_456L, "alice.sharma", 1_250_000.0, 187_500.0, 1_062_500.0);
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        try (JsonSerializer<Object> json = new JsonSerializer<>()) {
+            for (String type : new String[]{"calculation", "request", "response"}) {
+                System.out.printf("%-12s JSON map %3d bytes, binary %3d bytes%n", type,
+                        json.serialize(TOPIC, map(type)).length, TaxMessageCodec.encode(message(type)).length);
+            }
+        }
+        new Runner(new OptionsBuilder()
+                .include(TaxMessageCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.tax.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaxMessageCodecTest {
+
+    @Test
+    void roundTripsEveryMessageType() {
+        for (Object message : new Object[]{
+                new TaxCalculationMessage("TXN-1", 1_250.75),
+                new TaxCalculationMessage("TXN-2", null),
+                new TaxCalculationMessage(null, 0.0),
+                new TaxRequestMessage(42, "alice", 750_000),
+                new TaxRequestMessage(Long.MAX_VALUE, "", -0.0),
+                new TaxResponseMessage(42, "Zoë 山田", 750_000, 62_500, 687_500)}) {
+            byte[] encoded = TaxMessageCodec.encode(message);
+            assertTrue(TaxMessageCodec.isBinary(encoded));
+            assertEquals(message, TaxMessageCodec.decode(encoded));
+        }
+    }
+
+    @Test
+    void leavesOtherPayloadsToJson() {
+        assertNull(TaxMessageCodec.encode(Map.of("transaction_id", "TXN-1")));
+        assertNull(TaxMessageCodec.encode("text"));
+        assertFalse(TaxMessageCodec.isBinary("{\"id\":1}".getBytes()));
+        assertFalse(TaxMessageCodec.isBinary(null));
+    }
+
+    @Test
+    void readsMessagesFromALaterVersion() {
+        TaxRequestMessage message = new TaxRequestMessage(7, "bob", 100);
+        byte[] current = TaxMessageCodec.encode(message);
+        byte[] later = Arrays.copyOf(current, current.length + 5);
+        later[1] = TaxMessageCodec.VERSION + 1;
+
+        assertEquals(message, TaxMessageCodec.decode(later));
+    }
+
+    @Test
+    void rejectsUnknownTypesAndVersions() {
+        byte[] unknownType = TaxMessageCodec.encode(new TaxRequestMessage(7, "bob", 100));
+        unknownType[2] = 99;
+        assertThrows(IllegalArgumentException.class, () -> TaxMessageCodec.decode(unknownType));
+
+        byte[] unknownVersion = TaxMessageCodec.encode(new TaxRequestMessage(7, "bob", 100));
+        unknownVersion[1] = 0;
+        assertThrows(IllegalArgumentException.class, () -> TaxMessageCodec.decode(unknownVersion));
+    }
+
+    @Test
+    void readsTheLegacyMapForms() {
+        assertEquals(new TaxCalculationMessage("TXN-1", 12.5),
+                TaxCalculationMessage.fromMap(Map.of("transaction_id", "TXN-1", "amount", 12.5)));
+        assertEquals(new TaxRequestMessage(3, "carol", 1_000),
+                TaxRequestMessage.fromMap(Map.of("id", 3, "userName", "carol", "income", "1000")));
+        assertEquals(new TaxResponseMessage(3, "carol", 1_000, 50, 950),
+                TaxResponseMessage.fromMap(Map.of("id", 3L, "userName", "carol", "income", 1_000,
+                        "tax", 50.0, "netIncome", 950)));
+    }
+}
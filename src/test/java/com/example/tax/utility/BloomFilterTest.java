@@ -0,0 +1,48 @@
+package com.example.tax.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int KEYS = 200_000;
+
+    @Test
+    void neverForgetsAnAddedKey() {
+        BloomFilter filter = new BloomFilter(KEYS, 0.01);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put("TXN-" + i);
+        }
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(filter.mightContain("TXN-" + i), "TXN-" + i);
+        }
+    }
+
+    @Test
+    void putReportsWhetherTheKeyWasNew() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        assertTrue(filter.put("TXN-1"));
+        assertFalse(filter.put("TXN-1"));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        for (double rate : new double[]{0.01, 0.001}) {
+            BloomFilter filter = new BloomFilter(KEYS, rate);
+            for (int i = 0; i < KEYS; i++) {
+                filter.put("TXN-" + i);
+            }
+
+            int falsePositives = 0;
+            for (int i = 0; i < KEYS; i++) {
+                if (filter.mightContain("OTHER-" + i)) {
+                    falsePositives++;
+                }
+            }
+            double observed = (double) falsePositives / KEYS;
+            assertTrue(observed < rate * 1.5, "observed " + observed + " for configured " + rate);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.tax.utility;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.LocaleUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExcelFieldParserTest {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
+
+    private static final String[] INSTANTS = {
+            // Excel serials, around the phantom 1900-02-29 and with fractions of a day
+            "0", "1", "59", "60", "61", "45000", "45000.5", "45000.999999", "44927.0416666667", "2958465.99999",
+            "0.5", "1.", ".5", "00045000",
+            // ISO date-times, valid, SMART-resolved and out of range
+            "2024-01-15T10:30:45.123456", "2024-02-29T00:00:00.000000", "2023-02-29T00:00:00.000000",
+            "2024-04-31T12:00:00.000000", "0000-01-01T00:00:00.000000", "2024-13-01T00:00:00.000000",
+            "2024-01-15T24:00:00.000000", "2024-01-15T10:60:00.000000",
+            // neither shape
+            "2024-01-15 10:30:45.123456", "2024-01-15T10:30:45", "abc", "", "-1", "1e5", "NaN", "45000,5"
+    };
+
+    private static final String[] DATES = {
+            "2024-02-29", "2023-02-29", "2024-04-31", "0000-01-01", "2024-00-10", "+10000-01-01", "2024-1-01",
+            "abcd-ef-gh", ""
+    };
+
+    private static final String[] NUMBERS = {"1", "-0", "1e3", " 42 ", "NaN", "0x10", "2147483648", "abc", ""};
+
+    @AfterEach
+    void resetTimeZone() {
+        LocaleUtil.resetUserTimeZone();
+    }
+
+    // The parser PARSERS used before the fast paths
+    private static Instant legacyInstant(String s) {
+        try {
+            LocalDateTime ldt = LocalDateTime.parse(s, DATE_TIME_FORMATTER);
+            return ldt.toInstant(ZoneOffset.UTC);
+        } catch (Exception e) {
+            double excelDate = Double.parseDouble(s);
+            return Instant.ofEpochMilli(DateUtil.getJavaDate(excelDate).getTime());
+        }
+    }
+
+    private static <T> void assertSameOutcome(Function<String, T> expected, Function<String, ?> actual, String s) {
+        Object want;
+        try {
+            want = expected.apply(s);
+        } catch (Exception e) {
+            want = e.getClass();
+        }
+        Object got;
+        try {
+            got = actual.apply(s);
+        } catch (Exception e) {
+            got = e.getClass();
+        }
+        assertEquals(want, got, "'" + s + "'");
+    }
+
+    @Test
+    void instantMatchesTheFormatterAndPoiDateUtil() {
+        for (String zone : new String[]{"UTC", "Asia/Kolkata", "America/New_York", "Europe/London"}) {
+            LocaleUtil.setUserTimeZone(TimeZone.getTimeZone(zone));
+            for (String s : INSTANTS) {
+                assertSameOutcome(ExcelFieldParserTest::legacyInstant, ExcelFieldParser.PARSERS.get(Instant.class), s);
+            }
+        }
+    }
+
+    @Test
+    void serialsMatchPoiDateUtilIncludingDaylightSavingChanges() {
+        LocaleUtil.setUserTimeZone(TimeZone.getTimeZone("America/New_York"));
+        // 02:30 does not exist on the spring-forward day; 01:30 happens twice on the fall-back day
+        for (LocalDateTime local : new LocalDateTime[]{
+                LocalDateTime.of(2024, 3, 10, 2, 30), LocalDateTime.of(2024, 11, 3, 1, 30),
+                LocalDateTime.of(1900, 2, 28, 23, 59, 59), LocalDateTime.of(1900, 3, 1, 0, 0)}) {
+            String serial = Double.toString(DateUtil.getExcelDate(local));
+            assertSameOutcome(ExcelFieldParserTest::legacyInstant, ExcelFieldParser::parseInstant, serial);
+        }
+
+        Random random = new Random(5);
+        for (int i = 0; i < 20_000; i++) {
+            String serial = Double.toString(random.nextInt(80_000) + random.nextInt(86_400_000) / 86_400_000.0);
+            assertSameOutcome(ExcelFieldParserTest::legacyInstant, ExcelFieldParser::parseInstant, serial);
+        }
+    }
+
+    @Test
+    void localDateMatchesLocalDateParse() {
+        for (String s : DATES) {
+            assertSameOutcome(LocalDate::parse, ExcelFieldParser.PARSERS.get(LocalDate.class), s);
+        }
+    }
+
+    @Test
+    void numbersMatchTheBoxingParsers() {
+        for (String s : NUMBERS) {
+            assertSameOutcome(Double::valueOf, ExcelFieldParser.PARSERS.get(Double.class), s);
+            assertSameOutcome(Integer::valueOf, ExcelFieldParser.PARSERS.get(Integer.class), s);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.tax.utility;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimerWheelTest {
+
+    // 8 buckets of 2 ms: anything past 16 ms needs more than one rotation
+    private final HashedTimerWheel wheel = new HashedTimerWheel("test-timer", 2, TimeUnit.MILLISECONDS, 8);
+
+    @AfterEach
+    void close() {
+        wheel.close();
+    }
+
+    @Test
+    void firesAtOrAfterTheDeadline() throws Exception {
+        for (long delayMillis : new long[]{0, 5, 40}) {
+            CountDownLatch fired = new CountDownLatch(1);
+            AtomicLong firedAt = new AtomicLong();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+
+            HashedTimerWheel.Timeout timeout = wheel.schedule(() -> {
+                firedAt.set(System.nanoTime());
+                fired.countDown();
+            }, delayMillis, TimeUnit.MILLISECONDS);
+
+            assertTrue(fired.await(5, TimeUnit.SECONDS), "delay " + delayMillis);
+            assertTrue(firedAt.get() >= deadline, "fired early for delay " + delayMillis);
+            assertTrue(timeout.isDone());
+            assertFalse(timeout.cancel());
+        }
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        HashedTimerWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+
+        CountDownLatch later = new CountDownLatch(1);
+        wheel.schedule(later::countDown, 50, TimeUnit.MILLISECONDS);
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void firesExactlyTheTimeoutsThatWereNotCancelled() throws Exception {
+        int count = 10_000;
+        Random random = new Random(3);
+        AtomicInteger runs = new AtomicInteger();
+        List<HashedTimerWheel.Timeout> timeouts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            timeouts.add(wheel.schedule(runs::incrementAndGet, random.nextInt(60), TimeUnit.MILLISECONDS));
+        }
+        int cancelled = 0;
+        for (int i = 0; i < count; i += 2) {
+            if (timeouts.get(i).cancel()) {
+                cancelled++;
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runs.get() < count - cancelled && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // past the longest delay: a cancelled timeout that fired late would show up now
+        Thread.sleep(100);
+        assertEquals(count - cancelled, runs.get());
+        assertTrue(timeouts.stream().allMatch(HashedTimerWheel.Timeout::isDone));
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheWheel() throws Exception {
+        wheel.schedule(() -> {
+            throw new IllegalStateException("boom");
+        }, 1, TimeUnit.MILLISECONDS);
+        CountDownLatch fired = new CountDownLatch(1);
+        wheel.schedule(fired::countDown, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.tax.utility;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for {@code spring.threads.virtual.enabled}: the same burst of blocking requests run on a platform-thread
+ * pool sized like Tomcat's default, and on a virtual thread per request as Boot runs them in virtual mode. Each request
+ * blocks for a simulated database or Kafka round trip and then does a little CPU work. The {@code virtual-pinned} run
+ * blocks inside a {@code synchronized} block, which pins the carrier on JDK 22 and is what
+ * {@link PinnedThreadMonitor} reports. Prints throughput and p50/p99 latency, measured from submit to completion.
+ * Not run by the build; start it with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.tax.utility.WorkerThreadsLoadBenchmark -Dexec.args="20000 10 200"} (requests, blocking
+ * millis, platform pool size).
+ */
+public class WorkerThreadsLoadBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    private static volatile long sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int blockMillis = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        System.out.printf("%,d requests blocking %d ms, platform pool of %d threads, best of %d rounds%n",
+                requests, blockMillis, poolSize, ROUNDS);
+        run("platform", requests, blockMillis, false,
+                () -> Executors.newFixedThreadPool(poolSize, ThreadFactories.named("load")));
+        run("virtual", requests, blockMillis, false,
+                () -> Executors.newThreadPerTaskExecutor(ThreadFactories.virtual("load")));
+        run("virtual-pinned", requests, blockMillis, true,
+                () -> Executors.newThreadPerTaskExecutor(ThreadFactories.virtual("load")));
+    }
+
+    private static void run(String mode, int requests, int blockMillis, boolean pinned, ExecutorFactory executors)
+            throws InterruptedException {
+        Result best = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            Result result = round(requests, blockMillis, pinned, executors);
+            if (best == null || result.throughput > best.throughput) {
+                best = result;
+            }
+        }
+        System.out.printf("%-15s %,10.0f req/s   p50 %8.1f ms   p99 %8.1f ms%n",
+                mode, best.throughput, best.p50Millis, best.p99Millis);
+    }
+
+    private static Result round(int requests, int blockMillis, boolean pinned, ExecutorFactory executors)
+            throws InterruptedException {
+        long[] latencies = new long[requests];
+        CountDownLatch done = new CountDownLatch(requests);
+        long start = System.nanoTime();
+        try (ExecutorService executor = executors.create()) {
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                long submitted = System.nanoTime();
+                executor.execute(() -> {
+                    handle(blockMillis, pinned);
+                    latencies[request] = System.nanoTime() - submitted;
+                    done.countDown();
+                });
+            }
+            done.await();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(requests * 1e9 / elapsed,
+                latencies[(int) (requests * 0.50)] / 1e6,
+                latencies[Math.min(requests - 1, (int) (requests * 0.99))] / 1e6);
+    }
+
+    private static void handle(int blockMillis, boolean pinned) {
+        if (pinned) {
+            Object lock = new Object();
+            synchronized (lock) {
+                block(blockMillis);
+            }
+        } else {
+            block(blockMillis);
+        }
+        long hash = 17;
+        for (int i = 0; i < 2_000; i++) {
+            hash = hash * 31 + i;
+        }
+        sink = hash;
+    }
+
+    private static void block(int millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ExecutorFactory {
+        ExecutorService create();
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.tax.engine;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD form of {@link SlabTable#taxFor}: per lane, tax = sum over slabs of rate * clamp(income - lower, 0, width),
+ * which is branch-free and equal to the cumulative lookup. Lanes whose income is not above the first threshold
+ * (NaN included) are zeroed, as the scalar lookup returns 0 for them.
+ * <p>
+ * Built only with the {@code vector} Maven profile and used only when {@code jdk.incubator.vector} is enabled at
+ * runtime; see {@link TaxEngine}.
+ */
+final class VectorTaxKernel implements BulkTaxKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void compute(SlabTable table, double[] incomes, double[] taxes) {
+        int slabs = table.size();
+        double floor = table.lower(0);
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(incomes.length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector income = DoubleVector.fromArray(SPECIES, incomes, i);
+            VectorMask<Double> taxable = income.compare(VectorOperators.GT, floor);
+            DoubleVector tax = zero;
+            for (int s = 0; s < slabs; s++) {
+                DoubleVector portion = income.sub(table.lower(s)).min(table.width(s)).max(0.0);
+                tax = tax.add(portion.mul(table.rate(s)));
+            }
+            zero.blend(tax, taxable).intoArray(taxes, i);
+        }
+        for (; i < incomes.length; i++) {
+            taxes[i] = table.taxFor(incomes[i]);
+        }
+    }
+}